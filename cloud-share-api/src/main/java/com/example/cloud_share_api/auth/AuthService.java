@@ -20,8 +20,10 @@ import com.example.cloud_share_api.infrastructure.security.JwtProvider;
 import com.example.cloud_share_api.token.TokenService;
 import com.example.cloud_share_api.token.TokenType;
 import com.example.cloud_share_api.user.User;
+import com.example.cloud_share_api.user.UserCache;
 import com.example.cloud_share_api.user.UserRepository;
 
+import io.jsonwebtoken.Claims;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
@@ -31,6 +33,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AuthService {
   private final UserRepository userRepository;
+  private final UserCache userCache;
   private final PasswordEncoder passwordEncoder;
   private final AuthenticationManager authenticationManager;
 
@@ -89,6 +92,7 @@ public class AuthService {
 
     user.setVerify(true);
     userRepository.save(user);
+    userCache.invalidate(user.getEmail());
 
     return createAuthResponse(user);
   }
@@ -115,22 +119,22 @@ public class AuthService {
 
     token = token.substring(7);
     
-    String username = jwtProvider.getUsername(token);
-    User user = userRepository.findByEmail(username).orElseThrow(
+    Claims claims = jwtProvider.extractClaims(token);
+    User user = userRepository.findByEmail(claims.getSubject()).orElseThrow(
       () -> new InvalidTokenException("Invalid Token")
     );
         
-    if (!jwtProvider.validToken(user, token)) {
+    if (!jwtProvider.validToken(user, claims)) {
       throw new InvalidTokenException("Invalid Token");
     }
 
-    String accessToken = jwtProvider.generateToken(user.getUsername());
+    String accessToken = jwtProvider.generateToken(user);
     return new AuthResponse(accessToken, token);
   }
 
   private AuthResponse createAuthResponse(User user) {
-    String accessToken = jwtProvider.generateToken(user.getUsername());
-    String refreshToken = jwtProvider.generateToken(user.getUsername(), 7*24*60*60);
+    String accessToken = jwtProvider.generateToken(user);
+    String refreshToken = jwtProvider.generateToken(user, 7*24*60*60);
 
     return new AuthResponse(accessToken, refreshToken);
   }
@@ -0,0 +1,9 @@
+package com.example.cloud_share_api.file;
+
+import java.util.List;
+
+public record ArchiveRequest(
+  List<String> ids
+) {
+
+}
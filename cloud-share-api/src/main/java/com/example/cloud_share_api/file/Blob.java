@@ -0,0 +1,45 @@
+package com.example.cloud_share_api.file;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Entity
+@Table(name = "file_blob")
+public class Blob {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "file_blob_seq_generator")
+  @SequenceGenerator(name = "file_blob_seq_generator", sequenceName = "file_blob_seq", allocationSize = 50, initialValue = 101)
+  private Long id;
+
+  @Column(name = "hash", length = 64, unique = true, nullable = false)
+  private String hash;
+
+  @Column(name = "location", columnDefinition = "TEXT", nullable = false)
+  private String location;
+
+  @Column(name = "size", nullable = false)
+  private Long size;
+
+  @Column(name = "ref_count", nullable = false)
+  private Integer refCount;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt;
+}
@@ -0,0 +1,30 @@
+package com.example.cloud_share_api.file;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+
+public interface BlobRepository extends JpaRepository<Blob, Long> {
+  Optional<Blob> findByHash(String hash);
+  List<Blob> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select b from Blob b where b.hash = :hash")
+  Optional<Blob> findByHashForUpdate(@Param("hash") String hash);
+
+  @Modifying
+  @Query(value = """
+    INSERT INTO file_blob (id, hash, location, size, ref_count, created_at)
+    VALUES (NEXTVAL('file_blob_seq'), :hash, :location, :size, 1, NOW())
+    ON CONFLICT (hash) DO UPDATE SET ref_count = file_blob.ref_count + 1
+    """, nativeQuery = true)
+  int acquire(@Param("hash") String hash, @Param("location") String location, @Param("size") long size);
+}
@@ -0,0 +1,171 @@
+package com.example.cloud_share_api.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.cloud_share_api.infrastructure.storage.StorageBackend;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class BlobService {
+  private final BlobRepository blobRepository;
+  private final StorageLayout storageLayout;
+  private final SegmentService segmentService;
+  private final StorageBackend storageBackend;
+  private final PlatformTransactionManager transactionManager;
+
+  @Value("${spring.application.file.deduplication.enabled:true}")
+  private boolean deduplication;
+
+  private TransactionTemplate requiresNew;
+
+  @PostConstruct
+  void init() {
+    requiresNew = new TransactionTemplate(transactionManager);
+    requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  public Path createTempFile() throws IOException {
+    Path tempPath = storageLayout.tempPath();
+    Files.createDirectories(tempPath);
+    return tempPath.resolve(UUID.randomUUID().toString());
+  }
+
+  public StoredContent commit(Path tempFile, String fileName, String checksum, long size) throws IOException {
+    if (segmentService.accepts(size)) {
+      StoredContent stored = segmentService.append(tempFile, size);
+      onRollback(() -> segmentService.release(stored.segment(), size));
+      return stored;
+    }
+
+    if (!deduplication) {
+      String location = storageLayout.fileKey(fileName);
+      storageBackend.put(location, tempFile);
+      return StoredContent.standalone(location);
+    }
+
+    String location = blobLocation(checksum);
+    if (storageBackend.stat(location).isEmpty()) {
+      storageBackend.put(location, tempFile);
+    }
+
+    requiresNew.executeWithoutResult(status -> blobRepository.acquire(checksum, storageLayout.blobKey(checksum), size));
+
+    // A release that dropped the last reference before our acquire may have deleted the object we found.
+    location = blobLocation(checksum);
+    if (storageBackend.stat(location).isEmpty()) {
+      if (!Files.exists(tempFile)) {
+        releaseReference(checksum);
+        throw new IllegalStateException(String.format("Stored content for blob %s was removed concurrently", checksum));
+      }
+      storageBackend.put(location, tempFile);
+    }
+
+    Files.deleteIfExists(tempFile);
+    onRollback(() -> releaseReference(checksum));
+    return StoredContent.standalone(location);
+  }
+
+  public Optional<String> reference(String checksum, long size) throws IOException {
+    if (!deduplication) {
+      return Optional.empty();
+    }
+
+    Optional<Blob> blob = blobRepository.findByHash(checksum)
+      .filter(b -> b.getSize() == size);
+    if (blob.isEmpty()) {
+      return Optional.empty();
+    }
+
+    requiresNew.executeWithoutResult(status -> blobRepository.acquire(checksum, blob.get().getLocation(), size));
+
+    String location = blobLocation(checksum);
+    if (storageBackend.stat(location).isEmpty()) {
+      releaseReference(checksum);
+      return Optional.empty();
+    }
+
+    onRollback(() -> releaseReference(checksum));
+    return Optional.of(location);
+  }
+
+  @Transactional
+  public void release(File file) throws IOException {
+    if (file.getSegment() != null) {
+      segmentService.release(file);
+      return;
+    }
+
+    if (file.getChecksum() == null || !releaseBlob(file.getChecksum(), file.getLocation())) {
+      storageBackend.delete(file.getLocation());
+    }
+  }
+
+  private String blobLocation(String checksum) {
+    return blobRepository.findByHash(checksum)
+      .map(Blob::getLocation)
+      .orElseGet(() -> storageLayout.blobKey(checksum));
+  }
+
+  // Segment appends and blob references commit on their own, so an outer rollback has to undo them explicitly.
+  private void onRollback(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status != STATUS_COMMITTED) {
+          action.run();
+        }
+      }
+    });
+  }
+
+  private void releaseReference(String checksum) {
+    requiresNew.executeWithoutResult(status -> {
+      try {
+        releaseBlob(checksum, blobLocation(checksum));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  private boolean releaseBlob(String checksum, String location) throws IOException {
+    Optional<Blob> blob = blobRepository.findByHashForUpdate(checksum)
+      .filter(b -> b.getLocation().equals(location));
+
+    if (blob.isEmpty()) {
+      return false;
+    }
+
+    Blob shared = blob.get();
+    if (shared.getRefCount() > 1) {
+      shared.setRefCount(shared.getRefCount() - 1);
+      blobRepository.save(shared);
+      return true;
+    }
+
+    blobRepository.delete(shared);
+    storageBackend.delete(location);
+    return true;
+  }
+}
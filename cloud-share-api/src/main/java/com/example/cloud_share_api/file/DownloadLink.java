@@ -0,0 +1,5 @@
+package com.example.cloud_share_api.file;
+
+import java.time.Instant;
+
+public record DownloadLink(String url, Instant expiresAt) {}
@@ -0,0 +1,95 @@
+package com.example.cloud_share_api.file;
+
+import java.time.Instant;
+import java.util.Date;
+
+import javax.crypto.SecretKey;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.cloud_share_api.infrastructure.exceptions.ExpiredTokenException;
+import com.example.cloud_share_api.infrastructure.exceptions.InvalidTokenException;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+
+@Service
+public class DownloadLinkService {
+  private static final String AUDIENCE = "download";
+  private static final String NAME_CLAIM = "name";
+  private static final String TYPE_CLAIM = "type";
+  private static final String LOCATION_CLAIM = "loc";
+  private static final String OFFSET_CLAIM = "off";
+  private static final String SIZE_CLAIM = "len";
+  private static final String CHECKSUM_CLAIM = "sha";
+  private static final String PUBLIC_CLAIM = "pub";
+  private static final String UPLOADED_AT_CLAIM = "mod";
+
+  @Value("${spring.application.file.download.signing-key:${spring.security.jwt.secret-key}}")
+  private String signingKey;
+
+  @Value("${spring.application.file.download.link-expiration:60}")
+  private Long linkExpiration;
+
+  private SecretKey key;
+  private JwtParser parser;
+
+  @PostConstruct
+  void init() {
+    key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(signingKey));
+    parser = Jwts.parser().verifyWith(key).requireAudience(AUDIENCE).build();
+  }
+
+  // The whole target is signed so the download needs no lookup; the short expiry bounds how long a deleted or moved file stays reachable.
+  public String sign(DownloadTarget target, Instant expiresAt) {
+    return Jwts.builder()
+      .subject(target.uuid())
+      .audience().add(AUDIENCE).and()
+      .claim(NAME_CLAIM, target.name())
+      .claim(TYPE_CLAIM, target.type())
+      .claim(LOCATION_CLAIM, target.location())
+      .claim(OFFSET_CLAIM, target.segmentOffset())
+      .claim(SIZE_CLAIM, target.size())
+      .claim(CHECKSUM_CLAIM, target.checksum())
+      .claim(PUBLIC_CLAIM, target.isPublic())
+      .claim(UPLOADED_AT_CLAIM, target.uploadedAt() == null ? null : target.uploadedAt().toEpochMilli())
+      .expiration(Date.from(expiresAt))
+      .signWith(key)
+      .compact();
+  }
+
+  public Instant expiresAt() {
+    return Instant.now().plusSeconds(linkExpiration);
+  }
+
+  public DownloadTarget verify(String token) {
+    Claims claims;
+    try {
+      claims = parser.parseSignedClaims(token).getPayload();
+    } catch (ExpiredJwtException e) {
+      throw new ExpiredTokenException("Download link has expired");
+    } catch (JwtException | IllegalArgumentException e) {
+      throw new InvalidTokenException("Invalid download link");
+    }
+
+    Long uploadedAt = claims.get(UPLOADED_AT_CLAIM, Long.class);
+    return new DownloadTarget(
+      claims.getSubject(),
+      claims.get(NAME_CLAIM, String.class),
+      claims.get(TYPE_CLAIM, String.class),
+      claims.get(LOCATION_CLAIM, String.class),
+      claims.get(SIZE_CLAIM, Long.class),
+      claims.get(OFFSET_CLAIM, Long.class),
+      claims.get(CHECKSUM_CLAIM, String.class),
+      Boolean.TRUE.equals(claims.get(PUBLIC_CLAIM, Boolean.class)),
+      uploadedAt == null ? null : Instant.ofEpochMilli(uploadedAt)
+    );
+  }
+}
@@ -0,0 +1,7 @@
+package com.example.cloud_share_api.file;
+
+public enum DownloadOffload {
+  NONE,
+  X_ACCEL_REDIRECT,
+  X_SENDFILE
+}
@@ -0,0 +1,387 @@
+package com.example.cloud_share_api.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.UriUtils;
+
+import com.example.cloud_share_api.infrastructure.storage.StorageBackend;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class DownloadService {
+  private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+  private static final Set<String> COMPRESSED_TYPES = Set.of(
+    "application/zip",
+    "application/gzip",
+    "application/x-gzip",
+    "application/x-7z-compressed",
+    "application/x-rar-compressed",
+    "application/vnd.rar",
+    "application/x-bzip2",
+    "application/x-xz",
+    "application/zstd",
+    "application/pdf",
+    "application/epub+zip",
+    "application/java-archive"
+  );
+
+  private final StorageBackend storageBackend;
+  private final StorageLayout storageLayout;
+  private final HotFileCache hotFileCache;
+
+  @Value("${spring.application.file.download.sendfile-min-size:48KB}")
+  private DataSize sendfileMinSize;
+
+  @Value("${spring.application.file.download.public-max-age:3600}")
+  private Long publicMaxAge;
+
+  @Value("${spring.application.file.download.offload:none}")
+  private DownloadOffload offload;
+
+  @Value("${spring.application.file.download.offload-prefix:/internal/uploads/}")
+  private String offloadPrefix;
+
+  public CacheControl cacheControl(boolean isPublic) {
+    if (isPublic) {
+      return CacheControl.maxAge(Duration.ofSeconds(publicMaxAge)).cachePublic();
+    }
+
+    return CacheControl.noCache().cachePrivate();
+  }
+
+  public String eTag(DownloadTarget file) {
+    return "\"" + file.uuid() + "\"";
+  }
+
+  public void writeFile(DownloadTarget file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+    writeFile(file, request, response, true);
+  }
+
+  public void writeFile(DownloadTarget file, HttpServletRequest request, HttpServletResponse response, boolean cacheable) throws IOException {
+    response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(file.isPublic()).getHeaderValue());
+    if (new ServletWebRequest(request, response).checkNotModified(eTag(file), lastModified(file))) {
+      return;
+    }
+
+    String location = file.location();
+    Path path = storageBackend.localPath(location).orElse(null);
+    if (path != null && offload(file, path, response)) {
+      return;
+    }
+
+    ByteBuffer content = cacheable ? cachedContent(file) : null;
+    if (content != null) {
+      path = null;
+    } else if (path != null) {
+      path = path.toRealPath();
+    }
+
+    try (FileChannel channel = path == null ? null : FileChannel.open(path, StandardOpenOption.READ)) {
+      long base = file.segmentOffset() == null || content != null ? 0 : file.segmentOffset();
+      long length = content != null ? content.remaining()
+        : file.segmentOffset() != null ? file.size()
+        : channel != null ? channel.size()
+        : storageBackend.stat(location).orElseThrow(() -> new NoSuchFileException(location)).size();
+
+      String contentType = contentType(file);
+      setFileHeaders(file, response);
+      response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+      List<ByteRange> ranges;
+      try {
+        ranges = requestedRanges(file, request, length);
+      } catch (IllegalArgumentException e) {
+        response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        return;
+      }
+
+      boolean head = HttpMethod.HEAD.matches(request.getMethod());
+
+      if (ranges.isEmpty()) {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(contentType);
+        response.setContentLengthLong(length);
+        if (!head) {
+          writeRegion(channel, content, path, location, base, length, request, response);
+        }
+        return;
+      }
+
+      response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+
+      if (ranges.size() == 1) {
+        ByteRange range = ranges.get(0);
+        response.setContentType(contentType);
+        response.setContentLengthLong(range.length());
+        response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(length));
+        if (!head) {
+          writeRegion(channel, content, path, location, base + range.start(), range.length(), request, response);
+        }
+        return;
+      }
+
+      String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+      List<byte[]> partHeaders = new ArrayList<>();
+      long contentLength = 0;
+      for (ByteRange range : ranges) {
+        byte[] partHeader = String.format("\r\n--%s\r\n%s: %s\r\n%s: %s\r\n\r\n",
+          boundary,
+          HttpHeaders.CONTENT_TYPE, contentType,
+          HttpHeaders.CONTENT_RANGE, range.contentRange(length)
+        ).getBytes(StandardCharsets.US_ASCII);
+
+        partHeaders.add(partHeader);
+        contentLength += partHeader.length + range.length();
+      }
+      byte[] closeDelimiter = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+      contentLength += closeDelimiter.length;
+
+      response.setContentType("multipart/byteranges; boundary=" + boundary);
+      response.setContentLengthLong(contentLength);
+      if (head) {
+        return;
+      }
+
+      OutputStream outputStream = response.getOutputStream();
+      for (int i = 0; i < ranges.size(); i++) {
+        outputStream.write(partHeaders.get(i));
+        transfer(channel, content, location, base + ranges.get(i).start(), ranges.get(i).length(), outputStream);
+      }
+      outputStream.write(closeDelimiter);
+    }
+  }
+
+  public void writeArchive(List<DownloadTarget> files, String name, HttpServletResponse response) throws IOException {
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.setContentType("application/zip");
+    response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(false).getHeaderValue());
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "\"");
+
+    Set<String> entryNames = new HashSet<>();
+    try (ZipOutputStream zip = new ZipOutputStream(response.getOutputStream())) {
+      for (DownloadTarget file : files) {
+        ZipEntry entry = new ZipEntry(entryName(file.name(), entryNames));
+        entry.setTime(file.uploadedAt().toEpochMilli());
+
+        // Level 0 still uses DEFLATED with a data descriptor, so CRC and size are computed in the single pass.
+        zip.setLevel(isCompressed(file.type()) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+        zip.putNextEntry(entry);
+        try (InputStream inputStream = open(file)) {
+          inputStream.transferTo(zip);
+        }
+        zip.closeEntry();
+      }
+    }
+  }
+
+  private InputStream open(DownloadTarget file) throws IOException {
+    return file.segmentOffset() == null
+      ? storageBackend.get(file.location())
+      : storageBackend.get(file.location(), file.segmentOffset(), file.size());
+  }
+
+  private boolean isCompressed(String type) {
+    if (type == null) {
+      return false;
+    }
+
+    String mediaType = type.split(";", 2)[0].trim().toLowerCase();
+    return COMPRESSED_TYPES.contains(mediaType)
+      || mediaType.startsWith("video/")
+      || mediaType.startsWith("audio/")
+      || mediaType.startsWith("application/vnd.openxmlformats-officedocument.")
+      || (mediaType.startsWith("image/") && !mediaType.equals("image/svg+xml") && !mediaType.equals("image/bmp"));
+  }
+
+  private String entryName(String fileName, Set<String> entryNames) {
+    String name = fileName.replace('/', '_').replace('\\', '_');
+    int dot = name.lastIndexOf('.');
+    String base = dot > 0 ? name.substring(0, dot) : name;
+    String extension = dot > 0 ? name.substring(dot) : "";
+
+    for (int i = 1; !entryNames.add(name); i++) {
+      name = base + " (" + i + ")" + extension;
+    }
+
+    return name;
+  }
+
+  private boolean offload(DownloadTarget file, Path path, HttpServletResponse response) {
+    if (offload == DownloadOffload.NONE || file.segmentOffset() != null) {
+      return false;
+    }
+
+    String key = storageLayout.key(path);
+    if (key.startsWith("..")) {
+      return false;
+    }
+
+    response.setContentType(contentType(file));
+    setFileHeaders(file, response);
+
+    if (offload == DownloadOffload.X_SENDFILE) {
+      response.setHeader("X-Sendfile", path.toAbsolutePath().toString());
+    } else {
+      response.setHeader("X-Accel-Redirect", offloadPrefix + UriUtils.encodePath(key, StandardCharsets.UTF_8));
+    }
+
+    return true;
+  }
+
+  private ByteBuffer cachedContent(DownloadTarget file) throws IOException {
+    if (offload != DownloadOffload.NONE) {
+      return null;
+    }
+
+    try {
+      return hotFileCache.content(file).orElse(null);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  private String contentType(DownloadTarget file) {
+    return file.type() == null ? "application/octet-stream" : file.type();
+  }
+
+  private void setFileHeaders(DownloadTarget file, HttpServletResponse response) {
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.name() + "\"");
+    response.setHeader("X-File-Name", file.name());
+  }
+
+  private List<ByteRange> requestedRanges(DownloadTarget file, HttpServletRequest request, long length) {
+    String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+    if (rangeHeader == null || !isRangeApplicable(file, request)) {
+      return List.of();
+    }
+
+    // RFC 9110 says a Range header that does not parse is ignored, so only a well-formed but unsatisfiable range gets a 416.
+    List<HttpRange> httpRanges;
+    try {
+      httpRanges = HttpRange.parseRanges(rangeHeader);
+    } catch (IllegalArgumentException e) {
+      return List.of();
+    }
+
+    List<ByteRange> ranges = new ArrayList<>();
+    long total = 0;
+    for (HttpRange httpRange : httpRanges) {
+      long start = httpRange.getRangeStart(length);
+      long end = httpRange.getRangeEnd(length);
+      if (start >= length || end < start) {
+        throw new IllegalArgumentException("Requested range is not satisfiable");
+      }
+
+      ranges.add(new ByteRange(start, end - start + 1));
+      total += end - start + 1;
+    }
+
+    if (ranges.size() > 1 && total > length) {
+      throw new IllegalArgumentException("Requested ranges exceed the file length");
+    }
+
+    return ranges;
+  }
+
+  private boolean isRangeApplicable(DownloadTarget file, HttpServletRequest request) {
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange == null) {
+      return true;
+    }
+
+    if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+      return ifRange.equals(eTag(file));
+    }
+
+    try {
+      long since = request.getDateHeader(HttpHeaders.IF_RANGE);
+      return since == lastModified(file);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  private long lastModified(DownloadTarget file) {
+    return file.uploadedAt().truncatedTo(ChronoUnit.SECONDS).toEpochMilli();
+  }
+
+  private void writeRegion(FileChannel channel, ByteBuffer content, Path path, String location, long position, long count, HttpServletRequest request, HttpServletResponse response) throws IOException {
+    if (path != null && count >= sendfileMinSize.toBytes() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+      request.setAttribute(SENDFILE_FILENAME, path.toString());
+      request.setAttribute(SENDFILE_START, position);
+      request.setAttribute(SENDFILE_END, position + count);
+      return;
+    }
+
+    transfer(channel, content, location, position, count, response.getOutputStream());
+  }
+
+  private void transfer(FileChannel channel, ByteBuffer content, String location, long position, long count, OutputStream outputStream) throws IOException {
+    if (content != null) {
+      WritableByteChannel target = Channels.newChannel(outputStream);
+      ByteBuffer region = content.slice((int) position, (int) count);
+      while (region.hasRemaining()) {
+        target.write(region);
+      }
+      return;
+    }
+
+    if (channel == null) {
+      try (InputStream inputStream = storageBackend.get(location, position, count)) {
+        inputStream.transferTo(outputStream);
+      }
+      return;
+    }
+
+    // The servlet stream is not a FileChannel target, so this is an ordinary heap-buffered copy, not zero-copy.
+    // Only the Tomcat sendfile branch in writeRegion (and X-Accel offload) keeps the bytes out of user space.
+    WritableByteChannel target = Channels.newChannel(outputStream);
+    long end = position + count;
+    while (position < end) {
+      position += channel.transferTo(position, end - position, target);
+    }
+  }
+
+  private record ByteRange(long start, long length) {
+    String contentRange(long total) {
+      return String.format("bytes %d-%d/%d", start, start + length - 1, total);
+    }
+  }
+}
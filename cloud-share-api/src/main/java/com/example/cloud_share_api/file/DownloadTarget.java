@@ -0,0 +1,29 @@
+package com.example.cloud_share_api.file;
+
+import java.time.Instant;
+
+public record DownloadTarget(
+  String uuid,
+  String name,
+  String type,
+  String location,
+  Long size,
+  Long segmentOffset,
+  String checksum,
+  boolean isPublic,
+  Instant uploadedAt
+) {
+  public static DownloadTarget of(File file) {
+    return new DownloadTarget(
+      file.getUuid(),
+      file.getName(),
+      file.getType(),
+      file.getLocation(),
+      file.getSize(),
+      file.getSegmentOffset(),
+      file.getChecksum(),
+      file.isPublic(),
+      file.getUploadedAt()
+    );
+  }
+}
@@ -6,6 +6,7 @@ import com.example.cloud_share_api.user.User;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -29,7 +30,7 @@ import lombok.Setter;
 public class File {
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "file_seq_generator")
-  @SequenceGenerator(name = "file_seq_generator", sequenceName = "file_seq", allocationSize = 1, initialValue = 101)
+  @SequenceGenerator(name = "file_seq_generator", sequenceName = "file_seq", allocationSize = 50, initialValue = 101)
   private Long id;
 
   @Column(name = "uuid", unique = true, nullable = false)
@@ -47,13 +48,23 @@ public class File {
   @Column(name = "location", columnDefinition = "TEXT", nullable = false)
   private String location;
 
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "segment_id")
+  private Segment segment;
+
+  @Column(name = "segment_offset")
+  private Long segmentOffset;
+
+  @Column(name = "checksum", length = 64)
+  private String checksum;
+
   @Column(name = "is_public")
   private boolean isPublic;
 
   @Column(name = "uploaded_at", nullable = false, updatable = false)
   private Instant uploadedAt;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "user_id")
   private User user;
 }
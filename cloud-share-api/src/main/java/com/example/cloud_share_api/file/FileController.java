@@ -1,27 +1,34 @@
 package com.example.cloud_share_api.file;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -29,79 +36,100 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class FileController {
   private final FileService fileService;
+  private final DownloadService downloadService;
+  private final DownloadLinkService downloadLinkService;
+  private final ThumbnailService thumbnailService;
 
   @PostMapping()
   public ResponseEntity<List<FileDto>> uploadFile(List<MultipartFile> files, Authentication authentication) {
     return ResponseEntity.ok().body(fileService.uploadFile(files, authentication));
   }
 
+  @PostMapping(headers = "X-Upload-Mode=streaming")
+  public ResponseEntity<List<FileDto>> streamFileUpload(HttpServletRequest request, Authentication authentication) {
+    return ResponseEntity.ok().body(fileService.streamFileUpload(request, authentication));
+  }
+
+  @PostMapping("/hash")
+  public ResponseEntity<FileDto> uploadByHash(@RequestBody HashUploadRequest request, Authentication authentication) {
+    return fileService.uploadByHash(request, authentication)
+      .map(file -> ResponseEntity.status(HttpStatus.CREATED).body(file))
+      .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
   @GetMapping("/my")
-  public ResponseEntity<List<FileDto>> getCurrentUserFiles(Authentication authentication) {
-    return ResponseEntity.status(HttpStatus.OK).body(fileService.getCurrentUserFiles(authentication));
+  public ResponseEntity<List<FileDto>> getCurrentUserFiles(FileQuery query, Authentication authentication) {
+    FilePage page = fileService.getCurrentUserFiles(query, authentication);
+    ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+    if (page.nextCursor() != null) {
+      response.header("X-Next-Cursor", page.nextCursor());
+    }
+
+    return response.body(page.files());
   }
 
   @GetMapping("/{id}")
   public ResponseEntity<FileDto> getFileById(@PathVariable String id, Authentication authentication) {
-    return ResponseEntity.status(HttpStatus.OK).body(fileService.getFileById(id, authentication));
+    FileDto file = fileService.getFileById(id, authentication);
+    return ResponseEntity.status(HttpStatus.OK)
+      .eTag(metadataETag(file))
+      .lastModified(file.uploadedAt())
+      .cacheControl(downloadService.cacheControl(false))
+      .body(file);
   }
 
   @GetMapping("/public/{id}")
   public ResponseEntity<FileDto> getPublicFileById(@PathVariable String id) {
-    return ResponseEntity.status(HttpStatus.OK).body(fileService.getPublicFileById(id));
+    FileDto file = fileService.getPublicFileById(id);
+    return ResponseEntity.status(HttpStatus.OK)
+      .eTag(metadataETag(file))
+      .lastModified(file.uploadedAt())
+      .cacheControl(downloadService.cacheControl(true))
+      .body(file);
   }
 
   @GetMapping("/public/download/{id}")
-  public ResponseEntity<Resource> downloadPublicFileById(@PathVariable String id) {
-    File file = fileService.downloadPublicFile(id);
-    try {
-      Path filePath = Paths.get(file.getLocation()).normalize();
-      Resource resource = new UrlResource(filePath.toUri());
-      String contentType = file.getType();
-      if (contentType == null) {
-        contentType = "application/octet-stream";
-      }
-
-      HttpHeaders headers = new HttpHeaders();
-      headers.add(HttpHeaders.CONTENT_TYPE, contentType);
-      headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"");
-      headers.add("X-File-Name", file.getName());
-
-      return ResponseEntity.ok()
-        .headers(headers)
-        .contentLength(resource.contentLength())
-        .contentType(MediaType.parseMediaType(contentType))
-        .body(resource);
-    } catch (Exception e) {
-      e.printStackTrace();
-      return ResponseEntity.internalServerError().build();
-    }
+  public void downloadPublicFileById(@PathVariable String id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+    downloadService.writeFile(fileService.downloadPublicFile(id), request, response);
   }
 
   @GetMapping("/download/{id}")
-  public ResponseEntity<Resource> downloadFileById(@PathVariable String id, Authentication authentication) {
-    File file = fileService.downloadFile(id, authentication);
-    
+  public void downloadFileById(@PathVariable String id, Authentication authentication, HttpServletRequest request, HttpServletResponse response) throws IOException {
+    downloadService.writeFile(fileService.downloadFile(id, authentication), request, response);
+  }
+
+  @PostMapping("/download/archive")
+  public void downloadArchive(@RequestBody(required = false) ArchiveRequest request, Authentication authentication, HttpServletResponse response) throws IOException {
+    List<String> ids = request == null ? null : request.ids();
+    downloadService.writeArchive(fileService.downloadFiles(ids, authentication), "cloud-share.zip", response);
+  }
+
+  @GetMapping("/{id}/thumbnail")
+  public ResponseEntity<byte[]> getThumbnail(@PathVariable String id, @RequestParam(required = false) Integer size, Authentication authentication) throws IOException {
+    return thumbnail(fileService.downloadFile(id, authentication), size);
+  }
+
+  @GetMapping("/public/{id}/thumbnail")
+  public ResponseEntity<byte[]> getPublicThumbnail(@PathVariable String id, @RequestParam(required = false) Integer size) throws IOException {
+    return thumbnail(fileService.downloadPublicFile(id), size);
+  }
+
+  @GetMapping("/{id}/link")
+  public ResponseEntity<DownloadLink> getDownloadLink(@PathVariable String id, Authentication authentication) {
+    return ResponseEntity.status(HttpStatus.OK).body(createLink(fileService.downloadFile(id, authentication)));
+  }
+
+  @GetMapping("/public/{id}/link")
+  public ResponseEntity<DownloadLink> getPublicDownloadLink(@PathVariable String id) {
+    return ResponseEntity.status(HttpStatus.OK).body(createLink(fileService.downloadPublicFile(id)));
+  }
+
+  @GetMapping("/signed/{token}")
+  public void downloadSignedFile(@PathVariable String token, HttpServletRequest request, HttpServletResponse response) throws IOException {
     try {
-      Path filePath = Paths.get(file.getLocation()).normalize();
-      Resource resource = new UrlResource(filePath.toUri());
-      String contentType = file.getType();
-      if (contentType == null) {
-        contentType = "application/octet-stream";
-      }
-
-      HttpHeaders headers = new HttpHeaders();
-      headers.add(HttpHeaders.CONTENT_TYPE, contentType);
-      headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"");
-      headers.add("X-File-Name", file.getName());
-
-      return ResponseEntity.ok()
-        .headers(headers)
-        .contentLength(resource.contentLength())
-        .contentType(MediaType.parseMediaType(contentType))
-        .body(resource);
-    } catch (Exception e) {
-      e.printStackTrace();
-      return ResponseEntity.internalServerError().build();
+      downloadService.writeFile(downloadLinkService.verify(token), request, response, false);
+    } catch (NoSuchFileException e) {
+      throw new EntityNotFoundException("File not found");
     }
   }
 
@@ -115,4 +143,29 @@ public class FileController {
   public ResponseEntity<FileDto> updateVisiblity(@PathVariable String id, @RequestParam(required = true) boolean toggle, Authentication authentication) {
     return ResponseEntity.status(HttpStatus.OK).body(fileService.updateVisiblity(id, toggle, authentication));
   }
+
+  private DownloadLink createLink(DownloadTarget target) {
+    Instant expiresAt = downloadLinkService.expiresAt();
+    String url = ServletUriComponentsBuilder.fromCurrentContextPath()
+      .path("/api/v1/uploads/signed/{token}")
+      .buildAndExpand(downloadLinkService.sign(target, expiresAt))
+      .toUriString();
+    return new DownloadLink(url, expiresAt);
+  }
+
+  private ResponseEntity<byte[]> thumbnail(DownloadTarget file, Integer size) throws IOException {
+    CacheControl cacheControl = CacheControl.maxAge(Duration.ofDays(365)).immutable();
+    return thumbnailService.thumbnail(file, size)
+      .map(content -> ResponseEntity.status(HttpStatus.OK)
+        .eTag(thumbnailService.eTag(file, size))
+        .cacheControl(file.isPublic() ? cacheControl.cachePublic() : cacheControl.cachePrivate())
+        .contentType(MediaType.IMAGE_JPEG)
+        .body(content))
+      .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  private String metadataETag(FileDto file) {
+    String metadata = String.join("|", file.uuid(), file.name(), String.valueOf(file.isPublic()));
+    return DigestUtils.md5DigestAsHex(metadata.getBytes(StandardCharsets.UTF_8));
+  }
 }
@@ -0,0 +1,53 @@
+package com.example.cloud_share_api.file;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.springframework.data.domain.Sort;
+
+public record FileCursor(
+  Comparable<?> value,
+  Long id
+) {
+  public static FileCursor of(File file, FileSort sort) {
+    Comparable<?> value = switch (sort) {
+      case UPLOADED_AT -> file.getUploadedAt();
+      case NAME -> file.getName();
+      case SIZE -> file.getSize();
+    };
+
+    return new FileCursor(value, file.getId());
+  }
+
+  public String encode(FileSort sort, Sort.Direction direction) {
+    String cursor = String.join("\n", sort.name(), direction.name(), id.toString(), value.toString());
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static FileCursor decode(String cursor, FileSort sort, Sort.Direction direction) {
+    String[] parts;
+    try {
+      parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", 4);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    if (parts.length != 4 || !parts[0].equals(sort.name()) || !parts[1].equals(direction.name())) {
+      throw new IllegalArgumentException("Cursor does not match the requested sort order");
+    }
+
+    try {
+      Comparable<?> value = switch (sort) {
+        case UPLOADED_AT -> Instant.parse(parts[3]);
+        case NAME -> parts[3];
+        case SIZE -> Long.valueOf(parts[3]);
+      };
+
+      return new FileCursor(value, Long.valueOf(parts[2]));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+  }
+}
@@ -9,7 +9,10 @@ public record FileDto(
   String type,
   Long size,
   Boolean isPublic,
-  Instant uploadedAt
+  Instant uploadedAt,
+  String checksum
 ) {
-  
+  public FileDto withoutChecksum() {
+    return new FileDto(uuid, name, type, size, isPublic, uploadedAt, null);
+  }
 }
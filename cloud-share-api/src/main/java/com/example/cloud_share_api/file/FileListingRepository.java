@@ -0,0 +1,7 @@
+package com.example.cloud_share_api.file;
+
+import java.util.List;
+
+public interface FileListingRepository {
+  List<File> findPage(Long userId, FileQuery query, FileCursor cursor, int limit);
+}
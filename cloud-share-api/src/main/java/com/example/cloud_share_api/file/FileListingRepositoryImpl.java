@@ -0,0 +1,89 @@
+package com.example.cloud_share_api.file;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class FileListingRepositoryImpl implements FileListingRepository {
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<File> findPage(Long userId, FileQuery query, FileCursor cursor, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<File> criteria = cb.createQuery(File.class);
+    Root<File> root = criteria.from(File.class);
+
+    List<Predicate> predicates = new ArrayList<>();
+    predicates.add(cb.equal(root.get("user").get("id"), userId));
+
+    if (StringUtils.hasText(query.type())) {
+      predicates.add(query.type().contains("/")
+        ? cb.equal(root.get("type"), query.type())
+        : cb.like(root.get("type"), escape(query.type()) + "/%", '\\'));
+    }
+
+    if (query.isPublic() != null) {
+      predicates.add(cb.equal(root.get("isPublic"), query.isPublic()));
+    }
+
+    if (query.minSize() != null) {
+      predicates.add(cb.ge(root.get("size"), query.minSize()));
+    }
+
+    if (query.maxSize() != null) {
+      predicates.add(cb.le(root.get("size"), query.maxSize()));
+    }
+
+    if (StringUtils.hasText(query.name())) {
+      predicates.add(cb.like(cb.lower(root.get("name")), escape(query.name().toLowerCase()) + "%", '\\'));
+    }
+
+    Path<Comparable<Object>> key = root.get(query.sort().attribute());
+    Path<Long> id = root.get("id");
+    boolean ascending = query.direction() == Sort.Direction.ASC;
+
+    if (cursor != null) {
+      predicates.add(after(cb, key, id, cursor, ascending));
+    }
+
+    criteria.select(root)
+      .where(predicates.toArray(Predicate[]::new))
+      .orderBy(ascending ? cb.asc(key) : cb.desc(key), ascending ? cb.asc(id) : cb.desc(id));
+
+    return entityManager.createQuery(criteria)
+      .setMaxResults(limit)
+      .getResultList();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Predicate after(CriteriaBuilder cb, Path<Comparable<Object>> key, Path<Long> id, FileCursor cursor, boolean ascending) {
+    Comparable<Object> value = (Comparable<Object>) cursor.value();
+
+    if (ascending) {
+      return cb.or(
+        cb.greaterThan(key, value),
+        cb.and(cb.equal(key, value), cb.greaterThan(id, cursor.id()))
+      );
+    }
+
+    return cb.or(
+      cb.lessThan(key, value),
+      cb.and(cb.equal(key, value), cb.lessThan(id, cursor.id()))
+    );
+  }
+
+  private String escape(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+}
@@ -0,0 +1,10 @@
+package com.example.cloud_share_api.file;
+
+import java.util.List;
+
+public record FilePage(
+  List<FileDto> files,
+  String nextCursor
+) {
+
+}
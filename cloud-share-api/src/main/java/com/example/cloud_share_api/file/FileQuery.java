@@ -0,0 +1,20 @@
+package com.example.cloud_share_api.file;
+
+import org.springframework.data.domain.Sort;
+
+public record FileQuery(
+  String type,
+  Boolean isPublic,
+  Long minSize,
+  Long maxSize,
+  String name,
+  FileSort sort,
+  Sort.Direction direction,
+  String cursor,
+  Integer limit
+) {
+  public FileQuery {
+    sort = sort == null ? FileSort.UPLOADED_AT : sort;
+    direction = direction == null ? (sort == FileSort.UPLOADED_AT ? Sort.Direction.DESC : Sort.Direction.ASC) : direction;
+  }
+}
@@ -1,13 +1,47 @@
 package com.example.cloud_share_api.file;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.example.cloud_share_api.user.User;
 
 
-public interface FileRepository extends JpaRepository<File, Long> {
+public interface FileRepository extends JpaRepository<File, Long>, FileListingRepository {
   Optional<File> findByUuid(String uuid);
   List<File> findByUser(User user); 
+  Optional<File> findByUuidAndUserId(String uuid, Long userId);
+  boolean existsByUuid(String uuid);
+  List<File> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+  List<File> findBySegmentOrderBySegmentOffsetAsc(Segment segment);
+
+  @Query("select f.segment.id from File f where f.id = :id")
+  Optional<Long> findSegmentIdById(@Param("id") Long id);
+
+  @Query("select new com.example.cloud_share_api.file.FileDto(f.uuid, f.name, f.type, f.size, f.isPublic, f.uploadedAt, f.checksum) from File f where f.uuid = :uuid and f.user.id = :userId")
+  Optional<FileDto> findDtoByUuidAndUserId(@Param("uuid") String uuid, @Param("userId") Long userId);
+
+  @Query("select new com.example.cloud_share_api.file.FileDto(f.uuid, f.name, f.type, f.size, f.isPublic, f.uploadedAt, f.checksum) from File f where f.uuid = :uuid and f.isPublic = true")
+  Optional<FileDto> findPublicDtoByUuid(@Param("uuid") String uuid);
+
+  @Query("select new com.example.cloud_share_api.file.DownloadTarget(f.uuid, f.name, f.type, f.location, f.size, f.segmentOffset, f.checksum, f.isPublic, f.uploadedAt) from File f where f.uuid = :uuid and f.user.id = :userId")
+  Optional<DownloadTarget> findTargetByUuidAndUserId(@Param("uuid") String uuid, @Param("userId") Long userId);
+
+  @Query("select new com.example.cloud_share_api.file.DownloadTarget(f.uuid, f.name, f.type, f.location, f.size, f.segmentOffset, f.checksum, f.isPublic, f.uploadedAt) from File f where f.uuid = :uuid and f.isPublic = true")
+  Optional<DownloadTarget> findPublicTargetByUuid(@Param("uuid") String uuid);
+
+  @Query("select new com.example.cloud_share_api.file.DownloadTarget(f.uuid, f.name, f.type, f.location, f.size, f.segmentOffset, f.checksum, f.isPublic, f.uploadedAt) from File f where f.user.id = :userId order by f.uploadedAt desc, f.id desc")
+  List<DownloadTarget> findTargetsByUserId(@Param("userId") Long userId);
+
+  @Query("select new com.example.cloud_share_api.file.DownloadTarget(f.uuid, f.name, f.type, f.location, f.size, f.segmentOffset, f.checksum, f.isPublic, f.uploadedAt) from File f where f.user.id = :userId and f.uuid in :uuids")
+  List<DownloadTarget> findTargetsByUserIdAndUuidIn(@Param("userId") Long userId, @Param("uuids") Collection<String> uuids);
+
+  @Modifying
+  @Query("update File f set f.location = :target where f.location = :source")
+  int updateLocation(@Param("source") String source, @Param("target") String target);
 }
@@ -1,26 +1,48 @@
 package com.example.cloud_share_api.file;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.core.FileUploadSizeException;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.cloud_share_api.infrastructure.exceptions.AccessDeniedException;
-import com.example.cloud_share_api.infrastructure.exceptions.InsufficentCreditException;
+import com.example.cloud_share_api.user.AccountPrincipal;
+import com.example.cloud_share_api.user.CreditReservation;
+import com.example.cloud_share_api.user.CreditService;
 import com.example.cloud_share_api.user.User;
 import com.example.cloud_share_api.user.UserRepository;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,166 +51,342 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 public class FileService {
+  private final CreditService creditService;
   private final UserRepository userRepository;
   private final FileRepository fileRepository;
+  private final BlobService blobService;
+  private final HotFileCache hotFileCache;
+  private final ThumbnailService thumbnailService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final PlatformTransactionManager transactionManager;
 
-  @Value("${spring.application.file.upload-dir}")
-  private String uploadDir;
-  
-  @Transactional
+  @Value("${spring.servlet.multipart.max-file-size}")
+  private DataSize maxFileSize;
+
+  @Value("${spring.application.file.upload.by-hash.enabled:false}")
+  private boolean hashUploadEnabled;
+
+  @Value("${spring.application.file.listing.default-page-size:50}")
+  private int defaultPageSize;
+
+  @Value("${spring.application.file.listing.max-page-size:200}")
+  private int maxPageSize;
+
+  private TransactionTemplate transactionTemplate;
+
+  @PostConstruct
+  void init() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  // Copies and hashes outside any transaction, like streamFileUpload; only the inserts hold a connection.
   public List<FileDto> uploadFile(List<MultipartFile> fileRequest, Authentication authentication) {
-    User user = (User) authentication.getPrincipal();
+    User user = owner(AccountPrincipal.of(authentication));
     
-    if (user.getCredit() < fileRequest.size()) {
-      throw new InsufficentCreditException();
+    CreditReservation reservation = creditService.reserve(user, fileRequest.size());
+
+    List<File> files = new ArrayList<>();
+    try {
+      handleFileUpload(user, fileRequest, files);
+      reservation.release(fileRequest.size() - files.size());
+
+      transactionTemplate.executeWithoutResult(status -> {
+        fileRepository.saveAll(files);
+        publishUploaded(files);
+      });
+    } catch (RuntimeException e) {
+      discardUpload(files, List.of(reservation));
+      throw e;
     }
-    
-    List<File> files = handleFileUpload(user, fileRequest);
-    user.setCredit(user.getCredit() - files.size());
-    
-    userRepository.save(user);
-    fileRepository.saveAll(files);
 
     return files.stream()
       .map(f -> mapTODto(f))
       .toList();
   }
 
-  public List<FileDto> getCurrentUserFiles(Authentication authentication) {
-    User user = (User) authentication.getPrincipal();
-    return fileRepository.findByUser(user).stream()
+  // Streams and hashes outside any transaction; only the final inserts hold a connection.
+  public List<FileDto> streamFileUpload(HttpServletRequest request, Authentication authentication) {
+    User user = owner(AccountPrincipal.of(authentication));
+
+    if (!JakartaServletFileUpload.isMultipartContent(request)) {
+      throw new IllegalArgumentException("Request must be a multipart/form-data upload");
+    }
+
+    JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = new JakartaServletFileUpload<>();
+    upload.setFileSizeMax(maxFileSize.toBytes());
+
+    List<File> files = new ArrayList<>();
+    List<CreditReservation> reservations = new ArrayList<>();
+
+    try {
+      FileItemInputIterator iterator = upload.getItemIterator(request);
+      while (iterator.hasNext()) {
+        FileItemInput item = iterator.next();
+        if (item.isFormField() || !StringUtils.hasText(item.getName())) {
+          continue;
+        }
+
+        reservations.add(creditService.reserve(user, 1));
+
+        try (InputStream inputStream = item.getInputStream()) {
+          files.add(storeFile(user, inputStream, item.getName(), item.getContentType()));
+        }
+      }
+
+      transactionTemplate.executeWithoutResult(status -> {
+        fileRepository.saveAll(files);
+        publishUploaded(files);
+      });
+    } catch (FileUploadSizeException e) {
+      discardUpload(files, reservations);
+      throw new IllegalArgumentException(String.format("File exceeds the maximum upload size of %s", maxFileSize));
+    } catch (IOException e) {
+      discardUpload(files, reservations);
+      throw new UncheckedIOException("Error reading multipart upload", e);
+    } catch (RuntimeException e) {
+      discardUpload(files, reservations);
+      throw e;
+    }
+
+    return files.stream()
       .map(f -> mapTODto(f))
       .toList();
   }
 
-  public FileDto getFileById(String uuid, Authentication authentication) {
-    User user = (User) authentication.getPrincipal();
-    File file = findByUUID(uuid);
+  @Transactional
+  public Optional<FileDto> uploadByHash(HashUploadRequest request, Authentication authentication) {
+    User user = owner(AccountPrincipal.of(authentication));
 
-    if (!file.getUser().getUsername().equals(user.getUsername())) {
-      throw new AccessDeniedException();
+    if (!hashUploadEnabled) {
+      return Optional.empty();
     }
-    
-    return mapTODto(file);
+
+    if (!StringUtils.hasText(request.name())) {
+      throw new IllegalArgumentException("File name must not be blank");
+    }
+
+    if (request.size() == null || request.size() <= 0) {
+      throw new IllegalArgumentException("File size must be greater than zero");
+    }
+
+    if (request.checksum() == null || !request.checksum().matches("^[0-9a-fA-F]{64}$")) {
+      throw new IllegalArgumentException("Checksum must be a hex encoded SHA-256 digest");
+    }
+
+    CreditReservation reservation = creditService.reserve(user, 1);
+
+    String checksum = request.checksum().toLowerCase();
+    Optional<String> location;
+    try {
+      location = blobService.reference(checksum, request.size());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error looking up stored content", e);
+    }
+
+    if (location.isEmpty()) {
+      reservation.releaseAll();
+      return Optional.empty();
+    }
+
+    File file = File.builder()
+      .uuid(UUID.randomUUID().toString())
+      .name(request.name())
+      .type(StringUtils.hasText(request.type()) ? request.type() : "application/octet-stream")
+      .size(request.size())
+      .isPublic(false)
+      .user(user)
+      .uploadedAt(Instant.now())
+      .location(location.get())
+      .checksum(checksum)
+      .build();
+
+    fileRepository.save(file);
+    publishUploaded(List.of(file));
+
+    return Optional.of(mapTODto(file));
   }
 
-  public FileDto getPublicFileById(String uuid) {
-    File file = findByUUID(uuid);
+  public FilePage getCurrentUserFiles(FileQuery query, Authentication authentication) {
+    AccountPrincipal user = AccountPrincipal.of(authentication);
+    int limit = query.limit() == null ? defaultPageSize : Math.max(1, Math.min(query.limit(), maxPageSize));
+    FileCursor cursor = StringUtils.hasText(query.cursor()) ? FileCursor.decode(query.cursor(), query.sort(), query.direction()) : null;
 
-    if (!file.isPublic()) {
-      throw new AccessDeniedException();
+    List<File> files = fileRepository.findPage(user.getId(), query, cursor, limit + 1);
+    String nextCursor = null;
+    if (files.size() > limit) {
+      files = files.subList(0, limit);
+      nextCursor = FileCursor.of(files.get(limit - 1), query.sort()).encode(query.sort(), query.direction());
     }
 
-    return mapTODto(file);
+    return new FilePage(
+      files.stream().map(f -> mapTODto(f)).toList(),
+      nextCursor
+    );
+  }
+
+  public FileDto getFileById(String uuid, Authentication authentication) {
+    AccountPrincipal user = AccountPrincipal.of(authentication);
+    return fileRepository.findDtoByUuidAndUserId(uuid, user.getId())
+      .orElseThrow(() -> inaccessible(uuid));
+  }
+
+  public FileDto getPublicFileById(String uuid) {
+    return fileRepository.findPublicDtoByUuid(uuid)
+      .map(FileDto::withoutChecksum)
+      .orElseThrow(() -> inaccessible(uuid));
   }
 
   @Transactional
   public FileDto updateVisiblity(String uuid, boolean isPublic, Authentication authentication) {
-    User user = (User) authentication.getPrincipal();
-    File file = findByUUID(uuid);
-
-    if (!file.getUser().getUsername().equals(user.getUsername())) {
-      throw new AccessDeniedException();
-    }
+    AccountPrincipal user = AccountPrincipal.of(authentication);
+    File file = findOwnedByUUID(uuid, user);
 
     if (file.isPublic() == isPublic) {
       return mapTODto(file);
     }
 
     file.setPublic(isPublic);
+    hotFileCache.invalidate(uuid);
     return mapTODto(file);
   }
 
+  @Transactional
   public void deleteFile(String uuid, Authentication authentication) {
-    User user = (User) authentication.getPrincipal();
-    File file = findByUUID(uuid);
-
-    if (!file.getUser().getUsername().equals(user.getUsername())) {
-      throw new AccessDeniedException();
-    }
+    AccountPrincipal user = AccountPrincipal.of(authentication);
+    File file = findOwnedByUUID(uuid, user);
 
     try {
-      Files.delete(Path.of(file.getLocation()));
+      blobService.release(file);
+      thumbnailService.release(file);
       fileRepository.delete(file);
+      hotFileCache.invalidate(uuid);
     } catch (IOException e) {
       log.error("Error deleting file: {}", e.getMessage());
       e.printStackTrace();
     }
   }
 
-  public File downloadPublicFile(String uuid) {
-    File file = findByUUID(uuid);
-    if (!file.isPublic()) {
-      throw new AccessDeniedException();
-    }
-    
-    return file;
+  public DownloadTarget downloadPublicFile(String uuid) {
+    return fileRepository.findPublicTargetByUuid(uuid)
+      .orElseThrow(() -> inaccessible(uuid));
   }
 
-    public File downloadFile(String uuid, Authentication authentication) {
-    User user = (User) authentication.getPrincipal();
-    File file = findByUUID(uuid);
+  public DownloadTarget downloadFile(String uuid, Authentication authentication) {
+    AccountPrincipal user = AccountPrincipal.of(authentication);
+    return fileRepository.findTargetByUuidAndUserId(uuid, user.getId())
+      .orElseThrow(() -> inaccessible(uuid));
+  }
+
+  public List<DownloadTarget> downloadFiles(List<String> uuids, Authentication authentication) {
+    AccountPrincipal user = AccountPrincipal.of(authentication);
 
-    if (!file.getUser().getUsername().equals(user.getUsername())) {
-      throw new AccessDeniedException();
+    if (uuids == null || uuids.isEmpty()) {
+      return fileRepository.findTargetsByUserId(user.getId());
     }
-    
-    return file;
+
+    Set<String> requested = new LinkedHashSet<>(uuids);
+    List<DownloadTarget> files = fileRepository.findTargetsByUserIdAndUuidIn(user.getId(), requested);
+    if (files.size() != requested.size()) {
+      throw new EntityNotFoundException("File not found");
+    }
+
+    return files;
   }
 
-  private List<File> handleFileUpload(User user, List<MultipartFile> files) {
-    List<File> list = new ArrayList<>();
+  private void handleFileUpload(User user, List<MultipartFile> files, List<File> list) {
+    for (MultipartFile file : files) {
+      try (InputStream inputStream = file.getInputStream()) {
+        list.add(storeFile(user, inputStream, file.getOriginalFilename(), file.getContentType()));
+      } catch (IOException e) {
+        log.error("Error saving file: {}", e.getMessage());
+        e.printStackTrace();
+      }
+    }
+  }
 
-    Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+  private File storeFile(User user, InputStream inputStream, String originalFilename, String contentType) throws IOException {
+    String randomUUID = UUID.randomUUID().toString();
+    String fileName = randomUUID + "." + StringUtils.getFilenameExtension(originalFilename);
+    Path tempFile = blobService.createTempFile();
 
+    DigestInputStream digestInputStream = new DigestInputStream(inputStream, sha256());
+    long size;
     try {
-      Files.createDirectories(uploadPath);
+      size = Files.copy(digestInputStream, tempFile);
     } catch (IOException e) {
-      log.error("Error creating directory: {}", e.getMessage());
-      e.printStackTrace();
+      Files.deleteIfExists(tempFile);
+      throw e;
     }
 
-    for (MultipartFile file : files) {
-      String randomUUID = UUID.randomUUID().toString();
-      String fileName = randomUUID + "." + StringUtils.getFilenameExtension(file.getOriginalFilename());
+    String checksum = HexFormat.of().formatHex(digestInputStream.getMessageDigest().digest());
+    StoredContent stored = blobService.commit(tempFile, fileName, checksum, size);
+
+    return File.builder()
+      .uuid(randomUUID)
+      .name(originalFilename)
+      .type(contentType)
+      .size(size)
+      .isPublic(false)
+      .user(user)
+      .uploadedAt(Instant.now())
+      .location(stored.location())
+      .segment(stored.segment())
+      .segmentOffset(stored.offset())
+      .checksum(checksum)
+      .build();
+  }
+
+  static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
 
+  private void publishUploaded(List<File> files) {
+    eventPublisher.publishEvent(new FilesUploadedEvent(files.stream().map(DownloadTarget::of).toList()));
+  }
+
+  private void discardUpload(List<File> files, List<CreditReservation> reservations) {
+    for (File file : files) {
       try {
-        Files.copy(file.getInputStream(), Paths.get(uploadPath.toAbsolutePath().toString(), fileName));
-        File metadata = File.builder()
-          .uuid(randomUUID)
-          .name(file.getOriginalFilename())
-          .type(file.getContentType())
-          .size(file.getSize())
-          .isPublic(false)
-          .user(user)
-          .uploadedAt(Instant.now())
-          .location(uploadPath.toAbsolutePath().toString() + "/" + fileName)
-          .build();
-        
-        list.add(metadata);
+        blobService.release(file);
       } catch (IOException e) {
-        log.error("Error saving file: {}", e.getMessage());
-        e.printStackTrace();
+        log.error("Error discarding file: {}", e.getMessage());
       }
     }
 
-    return list;
+    reservations.forEach(CreditReservation::releaseAll);
   }
 
-  private File findByUUID(String uuid) {
-    return fileRepository.findByUuid(uuid).orElseThrow(
-      () -> new EntityNotFoundException("File not found")
-    );
+  private File findOwnedByUUID(String uuid, AccountPrincipal user) {
+    return fileRepository.findByUuidAndUserId(uuid, user.getId())
+      .orElseThrow(() -> inaccessible(uuid));
+  }
+
+  // Stateless tokens carry only the id, so writes attach the owner as a lazy reference.
+  private User owner(AccountPrincipal principal) {
+    return principal instanceof User user ? user : userRepository.getReferenceById(principal.getId());
+  }
+
+  private RuntimeException inaccessible(String uuid) {
+    if (fileRepository.existsByUuid(uuid)) {
+      return new AccessDeniedException();
+    }
+
+    return new EntityNotFoundException("File not found");
   }
 
-  private FileDto mapTODto(File file) {
+  static FileDto mapTODto(File file) {
     return new FileDto(
       file.getUuid(), 
       file.getName(), 
       file.getType(), 
       file.getSize(), 
       file.isPublic(), 
-      file.getUploadedAt()
+      file.getUploadedAt(),
+      file.getChecksum()
     );
   }
 }
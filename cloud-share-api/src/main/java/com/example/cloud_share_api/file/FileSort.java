@@ -0,0 +1,17 @@
+package com.example.cloud_share_api.file;
+
+public enum FileSort {
+  UPLOADED_AT("uploadedAt"),
+  NAME("name"),
+  SIZE("size");
+
+  private final String attribute;
+
+  FileSort(String attribute) {
+    this.attribute = attribute;
+  }
+
+  public String attribute() {
+    return attribute;
+  }
+}
@@ -0,0 +1,20 @@
+package com.example.cloud_share_api.file;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+public record HashUploadRequest(
+  @NotBlank(message = "File name must not be blank")
+  String name,
+
+  String type,
+
+  @Positive(message = "File size must be greater than zero")
+  Long size,
+
+  @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "Checksum must be a hex encoded SHA-256 digest")
+  String checksum
+) {
+
+}
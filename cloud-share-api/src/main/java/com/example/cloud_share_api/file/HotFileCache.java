@@ -0,0 +1,102 @@
+package com.example.cloud_share_api.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import com.example.cloud_share_api.infrastructure.storage.StorageBackend;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class HotFileCache {
+  private static final String CACHE_NAME = "hot-files";
+
+  private final StorageBackend storageBackend;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${spring.application.file.download.cache.enabled:true}")
+  private boolean enabled;
+
+  @Value("${spring.application.file.download.cache.max-size:64MB}")
+  private DataSize maxSize;
+
+  @Value("${spring.application.file.download.cache.max-file-size:1MB}")
+  private DataSize maxFileSize;
+
+  @Value("${spring.application.file.download.cache.ttl:10m}")
+  private Duration ttl;
+
+  private Cache<String, ByteBuffer> cache;
+
+  @PostConstruct
+  void init() {
+    cache = Caffeine.newBuilder()
+      .maximumWeight(maxSize.toBytes())
+      .weigher((String uuid, ByteBuffer content) -> content.capacity())
+      .expireAfterWrite(ttl)
+      .recordStats()
+      .build();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    Gauge.builder("cache.resident.bytes", cache, c -> c.policy().eviction().orElseThrow().weightedSize().orElse(0))
+      .tag("cache", CACHE_NAME)
+      .baseUnit("bytes")
+      .register(meterRegistry);
+  }
+
+  public Optional<ByteBuffer> content(DownloadTarget target) {
+    if (!enabled || !target.isPublic() || target.size() > maxFileSize.toBytes()) {
+      return Optional.empty();
+    }
+
+    return Optional.of(cache.get(target.uuid(), uuid -> load(target)).asReadOnlyBuffer());
+  }
+
+  public void invalidate(String uuid) {
+    cache.invalidate(uuid);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          cache.invalidate(uuid);
+        }
+      });
+    }
+  }
+
+  private ByteBuffer load(DownloadTarget target) {
+    ByteBuffer content = ByteBuffer.allocateDirect(target.size().intValue());
+
+    try (InputStream inputStream = target.segmentOffset() == null
+      ? storageBackend.get(target.location())
+      : storageBackend.get(target.location(), target.segmentOffset(), target.size())) {
+      byte[] buffer = new byte[8192];
+      int read;
+      while (content.hasRemaining() && (read = inputStream.read(buffer, 0, Math.min(buffer.length, content.remaining()))) != -1) {
+        content.put(buffer, 0, read);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return content.flip();
+  }
+}
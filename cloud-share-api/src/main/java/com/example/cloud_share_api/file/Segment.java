@@ -0,0 +1,45 @@
+package com.example.cloud_share_api.file;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Entity
+@Table(name = "file_segment")
+public class Segment {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "file_segment_seq_generator")
+  @SequenceGenerator(name = "file_segment_seq_generator", sequenceName = "file_segment_seq", allocationSize = 50, initialValue = 101)
+  private Long id;
+
+  @Column(name = "location", columnDefinition = "TEXT", nullable = false)
+  private String location;
+
+  @Column(name = "size", nullable = false)
+  private Long size;
+
+  @Column(name = "live_bytes", nullable = false)
+  private Long liveBytes;
+
+  @Column(name = "sealed", nullable = false)
+  private boolean sealed;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt;
+}
@@ -0,0 +1,23 @@
+package com.example.cloud_share_api.file;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+
+public interface SegmentRepository extends JpaRepository<Segment, Long> {
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<Segment> findFirstBySealedFalseOrderByIdAsc();
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select s from Segment s where s.id = :id")
+  Optional<Segment> findByIdForUpdate(@Param("id") Long id);
+
+  @Query("select s.id from Segment s where s.sealed = true and s.liveBytes < s.size * :ratio order by s.id")
+  List<Long> findCompactionCandidates(@Param("ratio") double ratio);
+}
@@ -0,0 +1,188 @@
+package com.example.cloud_share_api.file;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.example.cloud_share_api.infrastructure.storage.StorageBackend;
+
+import jakarta.transaction.Transactional;
+import jakarta.transaction.Transactional.TxType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SegmentService {
+  private final SegmentRepository segmentRepository;
+  private final FileRepository fileRepository;
+  private final StorageLayout storageLayout;
+  private final TransactionTemplate transactionTemplate;
+  private final StorageBackend storageBackend;
+
+  @Value("${spring.application.file.segment.threshold:64KB}")
+  private DataSize threshold;
+
+  @Value("${spring.application.file.segment.max-size:256MB}")
+  private DataSize maxSize;
+
+  @Value("${spring.application.file.segment.compaction-ratio:0.5}")
+  private double compactionRatio;
+
+  public boolean accepts(long size) {
+    return size < threshold.toBytes() && storageBackend.supportsAppend();
+  }
+
+  // Runs in its own transaction so the active segment lock is not held while the rest of an upload streams in.
+  @Transactional(TxType.REQUIRES_NEW)
+  public StoredContent append(Path tempFile, long size) throws IOException {
+    StoredContent stored;
+    try (FileChannel source = FileChannel.open(tempFile, StandardOpenOption.READ)) {
+      stored = append(source, 0, size);
+    }
+
+    Files.delete(tempFile);
+    return stored;
+  }
+
+  // Compaction may move the file and drop its segment while this waits on the row lock, so follow the file to its new segment.
+  @Transactional(TxType.REQUIRES_NEW)
+  public void release(File file) {
+    Long segmentId = file.getSegment().getId();
+    while (segmentId != null && !decrement(segmentId, file.getSize())) {
+      Long moved = file.getId() == null ? null : fileRepository.findSegmentIdById(file.getId()).orElse(null);
+      segmentId = Objects.equals(moved, segmentId) ? null : moved;
+    }
+  }
+
+  @Transactional(TxType.REQUIRES_NEW)
+  public void release(Segment released, long size) {
+    decrement(released.getId(), size);
+  }
+
+  private boolean decrement(Long id, long size) {
+    return segmentRepository.findByIdForUpdate(id).map(segment -> {
+      segment.setLiveBytes(Math.max(0, segment.getLiveBytes() - size));
+      segmentRepository.save(segment);
+      return true;
+    }).orElse(false);
+  }
+
+  @Scheduled(fixedDelayString = "${spring.application.file.segment.compaction-interval:3600000}")
+  public void compact() {
+    List<Long> candidates = segmentRepository.findCompactionCandidates(compactionRatio);
+    for (Long id : candidates) {
+      try {
+        Path obsolete = transactionTemplate.execute(status -> compact(id));
+        if (obsolete != null) {
+          Files.deleteIfExists(obsolete);
+        }
+      } catch (IOException | RuntimeException e) {
+        log.error("Error compacting segment {}: {}", id, e.getMessage());
+      }
+    }
+  }
+
+  private Path compact(Long id) {
+    Segment segment = segmentRepository.findByIdForUpdate(id).orElse(null);
+    if (segment == null) {
+      return null;
+    }
+
+    List<File> files = fileRepository.findBySegmentOrderBySegmentOffsetAsc(segment);
+    Path location = storageLayout.locate(segment.getLocation());
+
+    if (!files.isEmpty()) {
+      long copied = 0;
+      Segment target = null;
+      try (FileChannel source = FileChannel.open(location, StandardOpenOption.READ)) {
+        for (File file : files) {
+          StoredContent moved = append(source, file.getSegmentOffset(), file.getSize());
+          file.setLocation(moved.location());
+          file.setSegment(moved.segment());
+          file.setSegmentOffset(moved.offset());
+          copied += file.getSize();
+          target = moved.segment();
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("Error compacting segment " + id, e);
+      }
+
+      // A file released but not yet deleted is still listed; carry its bytes over as dead rather than live.
+      long released = copied - segment.getLiveBytes();
+      if (released > 0) {
+        target.setLiveBytes(Math.max(0, target.getLiveBytes() - released));
+        segmentRepository.save(target);
+      }
+
+      fileRepository.saveAll(files);
+    }
+
+    segmentRepository.delete(segment);
+    return location;
+  }
+
+  private StoredContent append(FileChannel source, long position, long size) throws IOException {
+    Segment segment = activeSegment(size);
+    Path location = storageLayout.locate(segment.getLocation());
+    long offset = segment.getSize();
+
+    source.position(position);
+    try (FileChannel target = FileChannel.open(location, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      long written = 0;
+      while (written < size) {
+        long count = target.transferFrom(source, offset + written, size - written);
+        if (count <= 0) {
+          throw new IOException("Unexpected end of input while appending to segment");
+        }
+        written += count;
+      }
+      target.force(false);
+    }
+
+    segment.setSize(offset + size);
+    segment.setLiveBytes(segment.getLiveBytes() + size);
+    segmentRepository.save(segment);
+
+    return new StoredContent(segment.getLocation(), segment, offset);
+  }
+
+  private Segment activeSegment(long size) throws IOException {
+    Optional<Segment> active = segmentRepository.findFirstBySealedFalseOrderByIdAsc();
+    if (active.isPresent() && active.get().getSize() + size <= maxSize.toBytes()) {
+      return active.get();
+    }
+
+    active.ifPresent(segment -> {
+      segment.setSealed(true);
+      segmentRepository.save(segment);
+    });
+
+    Path location = storageLayout.segmentPath(UUID.randomUUID().toString());
+    Files.createDirectories(location.getParent());
+
+    Segment segment = Segment.builder()
+      .location(storageLayout.key(location))
+      .size(0L)
+      .liveBytes(0L)
+      .sealed(false)
+      .createdAt(Instant.now())
+      .build();
+
+    return segmentRepository.save(segment);
+  }
+}
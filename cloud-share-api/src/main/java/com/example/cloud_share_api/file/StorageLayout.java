@@ -0,0 +1,101 @@
+package com.example.cloud_share_api.file;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StorageLayout {
+  private static final int SHARD_WIDTH = 2;
+
+  @Value("${spring.application.file.upload-dir}")
+  private String uploadDir;
+
+  @Value("${spring.application.file.layout.shard-depth:2}")
+  private int shardDepth;
+
+  public Path uploadPath() {
+    return Paths.get(uploadDir).toAbsolutePath().normalize();
+  }
+
+  public Path tempPath() {
+    return uploadPath().resolve("tmp");
+  }
+
+  public Path blobsPath() {
+    return uploadPath().resolve("blobs");
+  }
+
+  public Path segmentsPath() {
+    return uploadPath().resolve("segments");
+  }
+
+  public Path segmentPath(String name) {
+    return segmentsPath().resolve(name + ".seg");
+  }
+
+  public Path filePath(String fileName) {
+    return shard(uploadPath(), fileName);
+  }
+
+  public Path blobPath(String checksum) {
+    return shard(blobsPath(), checksum);
+  }
+
+  public String fileKey(String fileName) {
+    return key(filePath(fileName));
+  }
+
+  public String blobKey(String checksum) {
+    return key(blobPath(checksum));
+  }
+
+  public String key(Path path) {
+    return uploadPath().relativize(path.toAbsolutePath().normalize()).toString().replace('\\', '/');
+  }
+
+  public boolean isBlob(Path location) {
+    return location.toAbsolutePath().normalize().startsWith(blobsPath());
+  }
+
+  public Path relocate(Path location) {
+    String fileName = location.getFileName().toString();
+    return isBlob(location) ? blobPath(fileName) : filePath(fileName);
+  }
+
+  public Path locate(String location) {
+    Path path = uploadPath().resolve(location);
+    if (Files.exists(path)) {
+      return path;
+    }
+
+    Path legacy = Path.of(location);
+    if (Files.exists(legacy)) {
+      return legacy;
+    }
+
+    Path relocated = relocate(path);
+    if (Files.exists(relocated)) {
+      return relocated;
+    }
+
+    Path flat = (isBlob(path) ? blobsPath() : uploadPath()).resolve(path.getFileName());
+    return Files.exists(flat) ? flat : path;
+  }
+
+  private Path shard(Path root, String fileName) {
+    if (fileName.length() <= shardDepth * SHARD_WIDTH) {
+      return root.resolve(fileName);
+    }
+
+    Path path = root;
+    for (int level = 0; level < shardDepth; level++) {
+      path = path.resolve(fileName.substring(level * SHARD_WIDTH, (level + 1) * SHARD_WIDTH).toLowerCase());
+    }
+
+    return path.resolve(fileName);
+  }
+}
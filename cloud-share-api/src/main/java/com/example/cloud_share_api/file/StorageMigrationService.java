@@ -0,0 +1,178 @@
+package com.example.cloud_share_api.file;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StorageMigrationService {
+  private final FileRepository fileRepository;
+  private final BlobRepository blobRepository;
+  private final StorageLayout storageLayout;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${spring.application.file.layout.migration.enabled:false}")
+  private boolean enabled;
+
+  @Value("${spring.application.file.layout.migration.batch-size:500}")
+  private int batchSize;
+
+  @Value("${spring.application.file.thumbnail.sizes:128,512}")
+  private List<Integer> thumbnailSizes;
+
+  @Async
+  @EventListener(ApplicationReadyEvent.class)
+  public void migrateOnStartup() {
+    if (enabled) {
+      migrate();
+    }
+  }
+
+  public int migrate() {
+    int moved = 0;
+
+    long lastId = 0;
+    List<Blob> blobs;
+    while (!(blobs = blobRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize))).isEmpty()) {
+      List<Blob> batch = blobs;
+      moved += commitBatch(() -> migrateBlobs(batch));
+      lastId = blobs.get(blobs.size() - 1).getId();
+    }
+
+    lastId = 0;
+    List<File> files;
+    while (!(files = fileRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize))).isEmpty()) {
+      List<File> batch = files;
+      moved += commitBatch(() -> migrateFiles(batch));
+      lastId = files.get(files.size() - 1).getId();
+    }
+
+    log.info("Storage layout migration finished, relocated {} files", moved);
+    return moved;
+  }
+
+  private int commitBatch(BatchMigration migration) {
+    List<Path> obsolete = transactionTemplate.execute(status -> {
+      try {
+        return migration.migrate();
+      } catch (IOException e) {
+        throw new IllegalStateException("Error migrating storage layout", e);
+      }
+    });
+
+    for (Path path : obsolete) {
+      try {
+        Files.deleteIfExists(path);
+        for (Path thumbnail : thumbnails(path)) {
+          Files.deleteIfExists(thumbnail);
+        }
+      } catch (IOException e) {
+        log.error("Error deleting migrated file: {}", e.getMessage());
+      }
+    }
+
+    return obsolete.size();
+  }
+
+  private List<Path> migrateBlobs(List<Blob> blobs) throws IOException {
+    List<Path> obsolete = new ArrayList<>();
+
+    for (Blob candidate : blobs) {
+      Blob blob = blobRepository.findByHashForUpdate(candidate.getHash()).orElse(null);
+      if (blob == null) {
+        continue;
+      }
+
+      Path source = storageLayout.locate(blob.getLocation());
+      Path target = storageLayout.blobPath(blob.getHash());
+      if (source.equals(target) || !link(source, target)) {
+        continue;
+      }
+
+      linkThumbnails(source, target);
+      String location = storageLayout.key(target);
+      fileRepository.updateLocation(blob.getLocation(), location);
+      blob.setLocation(location);
+      obsolete.add(source);
+    }
+
+    return obsolete;
+  }
+
+  private List<Path> migrateFiles(List<File> files) throws IOException {
+    List<Path> obsolete = new ArrayList<>();
+
+    for (File file : files) {
+      Path source = storageLayout.locate(file.getLocation());
+      if (file.getSegment() != null || storageLayout.isBlob(source)) {
+        continue;
+      }
+
+      Path target = storageLayout.relocate(source);
+      if (source.equals(target) || !link(source, target)) {
+        continue;
+      }
+
+      linkThumbnails(source, target);
+      fileRepository.updateLocation(file.getLocation(), storageLayout.key(target));
+      obsolete.add(source);
+    }
+
+    return obsolete;
+  }
+
+  // Thumbnails are keyed on the content location, so they move with it instead of being left behind.
+  private void linkThumbnails(Path source, Path target) throws IOException {
+    List<Path> sources = thumbnails(source);
+    List<Path> targets = thumbnails(target);
+    for (int i = 0; i < sources.size(); i++) {
+      if (Files.exists(sources.get(i))) {
+        link(sources.get(i), targets.get(i));
+      }
+    }
+  }
+
+  private List<Path> thumbnails(Path path) {
+    return thumbnailSizes.stream()
+      .map(size -> path.resolveSibling(ThumbnailService.thumbnailKey(path.getFileName().toString(), size)))
+      .toList();
+  }
+
+  private boolean link(Path source, Path target) throws IOException {
+    if (!Files.exists(source)) {
+      return Files.exists(target);
+    }
+
+    Files.createDirectories(target.getParent());
+    try {
+      Files.createLink(target, source);
+    } catch (FileAlreadyExistsException e) {
+      return true;
+    } catch (UnsupportedOperationException | IOException e) {
+      Files.copy(source, target);
+    }
+
+    return true;
+  }
+
+  @FunctionalInterface
+  private interface BatchMigration {
+    List<Path> migrate() throws IOException;
+  }
+}
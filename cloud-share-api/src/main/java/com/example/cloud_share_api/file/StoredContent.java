@@ -0,0 +1,7 @@
+package com.example.cloud_share_api.file;
+
+public record StoredContent(String location, Segment segment, Long offset) {
+  public static StoredContent standalone(String location) {
+    return new StoredContent(location, null, null);
+  }
+}
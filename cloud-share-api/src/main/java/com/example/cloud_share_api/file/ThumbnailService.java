@@ -0,0 +1,265 @@
+package com.example.cloud_share_api.file;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import com.example.cloud_share_api.infrastructure.storage.StorageBackend;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ThumbnailService {
+  private static final Set<String> SUPPORTED_TYPES = Set.of(ImageIO.getReaderMIMETypes());
+
+  private final StorageBackend storageBackend;
+  private final StorageLayout storageLayout;
+  private final BlobService blobService;
+  private final Map<String, CompletableFuture<Boolean>> pending = new ConcurrentHashMap<>();
+
+  @Value("${spring.application.file.thumbnail.sizes:128,512}")
+  private List<Integer> sizes;
+
+  @Value("${spring.application.file.thumbnail.max-source-size:20MB}")
+  private DataSize maxSourceSize;
+
+  @Value("${spring.application.file.thumbnail.workers:2}")
+  private int workers;
+
+  @Value("${spring.application.file.thumbnail.queue-capacity:100}")
+  private int queueCapacity;
+
+  @Value("${spring.application.file.thumbnail.max-pixels:40000000}")
+  private long maxPixels;
+
+  @Value("${spring.application.file.thumbnail.lazy-timeout:5s}")
+  private Duration lazyTimeout;
+
+  @Value("${spring.application.file.thumbnail.failure-ttl:1h}")
+  private Duration failureTtl;
+
+  private ThreadPoolExecutor executor;
+  private Cache<String, Boolean> failures;
+
+  @PostConstruct
+  void init() {
+    sizes = sizes.stream().sorted().toList();
+    executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("thumbnail-"));
+    failures = Caffeine.newBuilder()
+      .maximumSize(10_000)
+      .expireAfterWrite(failureTtl)
+      .build();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @TransactionalEventListener
+  public void onFilesUploaded(FilesUploadedEvent event) {
+    for (DownloadTarget file : event.files()) {
+      if (!supports(file)) {
+        continue;
+      }
+
+      try {
+        schedule(file);
+      } catch (RejectedExecutionException e) {
+        log.warn("Thumbnail queue is full, {} will be generated on first request", file.uuid());
+      }
+    }
+  }
+
+  public Optional<byte[]> thumbnail(DownloadTarget file, Integer size) throws IOException {
+    if (!supports(file) || failures.getIfPresent(file.uuid()) != null) {
+      return Optional.empty();
+    }
+
+    String key = thumbnailKey(file, snap(size));
+    if (storageBackend.stat(key).isEmpty() && !awaitGenerated(file)) {
+      return Optional.empty();
+    }
+
+    try (InputStream inputStream = storageBackend.get(key)) {
+      return Optional.of(inputStream.readAllBytes());
+    }
+  }
+
+  public String eTag(DownloadTarget file, Integer size) {
+    return "\"" + file.uuid() + "-" + snap(size) + "\"";
+  }
+
+  public void release(File file) throws IOException {
+    DownloadTarget target = DownloadTarget.of(file);
+    if (!supports(target) || (file.getSegmentOffset() == null && storageBackend.stat(file.getLocation()).isPresent())) {
+      return;
+    }
+
+    for (Integer size : sizes) {
+      storageBackend.delete(thumbnailKey(target, size));
+    }
+  }
+
+  // Lazy generation shares the bounded pool with uploads so request threads never decode images themselves.
+  private boolean awaitGenerated(DownloadTarget file) {
+    try {
+      return schedule(file).get(lazyTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException | TimeoutException e) {
+      return false;
+    } catch (ExecutionException e) {
+      log.warn("Error generating thumbnail for {}: {}", file.uuid(), e.getCause().getMessage());
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private CompletableFuture<Boolean> schedule(DownloadTarget file) {
+    CompletableFuture<Boolean> future = pending.computeIfAbsent(file.uuid(),
+      uuid -> CompletableFuture.supplyAsync(() -> generate(file), executor));
+    future.whenComplete((generated, e) -> pending.remove(file.uuid(), future));
+    return future;
+  }
+
+  private boolean generate(DownloadTarget file) {
+    BufferedImage source;
+    try (InputStream inputStream = file.segmentOffset() == null
+      ? storageBackend.get(file.location())
+      : storageBackend.get(file.location(), file.segmentOffset(), file.size())) {
+      source = decode(inputStream);
+    } catch (IIOException e) {
+      log.warn("Error decoding image {}: {}", file.uuid(), e.getMessage());
+      source = null;
+    } catch (IOException e) {
+      log.warn("Error reading image {}: {}", file.uuid(), e.getMessage());
+      return false;
+    }
+
+    if (source == null) {
+      failures.put(file.uuid(), Boolean.TRUE);
+      return false;
+    }
+
+    try {
+      for (Integer size : sizes) {
+        Path tempFile = blobService.createTempFile();
+        try {
+          ImageIO.write(scale(source, size), "jpg", tempFile.toFile());
+          storageBackend.put(thumbnailKey(file, size), tempFile);
+        } finally {
+          Files.deleteIfExists(tempFile);
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Error writing thumbnail for {}: {}", file.uuid(), e.getMessage());
+      return false;
+    }
+
+    return true;
+  }
+
+  // Reads the header first so a tiny file claiming huge dimensions is refused before any pixels are allocated.
+  private BufferedImage decode(InputStream inputStream) throws IOException {
+    try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+      Iterator<ImageReader> readers = imageInputStream == null ? null : ImageIO.getImageReaders(imageInputStream);
+      if (readers == null || !readers.hasNext()) {
+        return null;
+      }
+
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(imageInputStream, true, true);
+        if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+          throw new IIOException(String.format("Image exceeds %d pixels", maxPixels));
+        }
+
+        return reader.read(0);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  private BufferedImage scale(BufferedImage source, int size) {
+    double ratio = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+    int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+    int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+    BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = target.createGraphics();
+    try {
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+    } finally {
+      graphics.dispose();
+    }
+
+    return target;
+  }
+
+  private boolean supports(DownloadTarget file) {
+    return file.type() != null
+      && SUPPORTED_TYPES.contains(file.type().toLowerCase())
+      && file.size() <= maxSourceSize.toBytes();
+  }
+
+  private int snap(Integer size) {
+    if (size == null) {
+      return sizes.get(0);
+    }
+
+    return sizes.stream()
+      .filter(s -> s >= size)
+      .findFirst()
+      .orElse(sizes.get(sizes.size() - 1));
+  }
+
+  private String thumbnailKey(DownloadTarget file, int size) {
+    return thumbnailKey(file.segmentOffset() == null ? file.location() : storageLayout.fileKey(file.uuid()), size);
+  }
+
+  static String thumbnailKey(String base, int size) {
+    return base + ".thumb-" + size + ".jpg";
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.cloud_share_api.file;
+
+import java.time.Instant;
+
+import com.example.cloud_share_api.user.User;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+@Entity
+@Table(name = "upload_session")
+public class UploadSession {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "upload_session_seq_generator")
+  @SequenceGenerator(name = "upload_session_seq_generator", sequenceName = "upload_session_seq", allocationSize = 50, initialValue = 101)
+  private Long id;
+
+  @Column(name = "uuid", unique = true, nullable = false)
+  private String uuid;
+
+  @Column(name = "name", nullable = false)
+  private String name;
+
+  @Column(name = "type", nullable = false)
+  private String type;
+
+  @Column(name = "size", nullable = false)
+  private Long size;
+
+  @Column(name = "chunk_size", nullable = false)
+  private Long chunkSize;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt;
+
+  @Column(name = "expires_at", nullable = false)
+  private Instant expiresAt;
+
+  @Column(name = "completing_at")
+  private Instant completingAt;
+
+  @ManyToOne
+  @JoinColumn(name = "user_id")
+  private User user;
+
+  public int getChunkCount() {
+    return (int) ((size + chunkSize - 1) / chunkSize);
+  }
+
+  public long getChunkLength(int index) {
+    return Math.min(chunkSize, size - index * chunkSize);
+  }
+
+  public boolean isCompleting() {
+    return this.completingAt != null;
+  }
+
+  public boolean isExpired() {
+    return this.expiresAt.isBefore(Instant.now());
+  }
+}
@@ -0,0 +1,51 @@
+package com.example.cloud_share_api.file;
+
+import java.io.InputStream;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/v1/uploads/sessions")
+@RequiredArgsConstructor
+public class UploadSessionController {
+  private final UploadSessionService uploadSessionService;
+
+  @PostMapping()
+  public ResponseEntity<UploadSessionDto> createSession(@RequestBody UploadSessionRequest request, Authentication authentication) {
+    return ResponseEntity.status(HttpStatus.CREATED).body(uploadSessionService.createSession(request, authentication));
+  }
+
+  @GetMapping("/{id}")
+  public ResponseEntity<UploadSessionDto> getSession(@PathVariable String id, Authentication authentication) {
+    return ResponseEntity.status(HttpStatus.OK).body(uploadSessionService.getSession(id, authentication));
+  }
+
+  @PutMapping("/{id}/chunks/{index}")
+  public ResponseEntity<UploadSessionDto> uploadChunk(@PathVariable String id, @PathVariable int index, InputStream inputStream, Authentication authentication) {
+    return ResponseEntity.status(HttpStatus.OK).body(uploadSessionService.uploadChunk(id, index, inputStream, authentication));
+  }
+
+  @PostMapping("/{id}/complete")
+  public ResponseEntity<FileDto> completeSession(@PathVariable String id, Authentication authentication) {
+    return ResponseEntity.status(HttpStatus.CREATED).body(uploadSessionService.completeSession(id, authentication));
+  }
+
+  @DeleteMapping("/{id}")
+  public ResponseEntity<Map<String, String>> abortSession(@PathVariable String id, Authentication authentication) {
+    uploadSessionService.abortSession(id, authentication);
+    return ResponseEntity.status(HttpStatus.OK).body(Map.of("aborted", id));
+  }
+}
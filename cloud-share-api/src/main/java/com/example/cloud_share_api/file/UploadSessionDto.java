@@ -0,0 +1,17 @@
+package com.example.cloud_share_api.file;
+
+import java.time.Instant;
+import java.util.List;
+
+public record UploadSessionDto(
+  String uuid,
+  String name,
+  String type,
+  Long size,
+  Long chunkSize,
+  Integer chunkCount,
+  List<Integer> receivedChunks,
+  Instant expiresAt
+) {
+
+}
@@ -0,0 +1,24 @@
+package com.example.cloud_share_api.file;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, Long> {
+  Optional<UploadSession> findByUuid(String uuid);
+
+  @Modifying
+  @Query("update UploadSession s set s.completingAt = :now where s.uuid = :uuid and s.completingAt is null")
+  int claim(@Param("uuid") String uuid, @Param("now") Instant now);
+
+  @Modifying
+  @Query("update UploadSession s set s.completingAt = null where s.uuid = :uuid")
+  int releaseClaim(@Param("uuid") String uuid);
+
+  List<UploadSession> findByExpiresAtBefore(Instant instant);
+}
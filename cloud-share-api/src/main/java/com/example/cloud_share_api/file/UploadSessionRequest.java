@@ -0,0 +1,16 @@
+package com.example.cloud_share_api.file;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+public record UploadSessionRequest(
+  @NotBlank(message = "File name must not be blank")
+  String name,
+
+  String type,
+
+  @Positive(message = "File size must be greater than zero")
+  Long size
+) {
+
+}
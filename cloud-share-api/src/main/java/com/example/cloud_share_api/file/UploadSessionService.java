@@ -0,0 +1,378 @@
+package com.example.cloud_share_api.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.example.cloud_share_api.infrastructure.exceptions.AccessDeniedException;
+import com.example.cloud_share_api.infrastructure.exceptions.InsufficentCreditException;
+import com.example.cloud_share_api.user.AccountPrincipal;
+import com.example.cloud_share_api.user.User;
+import com.example.cloud_share_api.user.UserRepository;
+import com.example.cloud_share_api.user.CreditService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UploadSessionService {
+  private static final String CHUNK_SUFFIX = ".part";
+
+  private final UploadSessionRepository uploadSessionRepository;
+  private final FileRepository fileRepository;
+  private final CreditService creditService;
+  private final UserRepository userRepository;
+  private final BlobService blobService;
+  private final ApplicationEventPublisher eventPublisher;
+  private final PlatformTransactionManager transactionManager;
+
+  @Value("${spring.application.file.upload-dir}")
+  private String uploadDir;
+
+  @Value("${spring.application.file.session.chunk-size:8MB}")
+  private DataSize chunkSize;
+
+  @Value("${spring.application.file.session.max-file-size:10GB}")
+  private DataSize maxFileSize;
+
+  @Value("${spring.application.file.session.expiration:86400}")
+  private Long expiration;
+
+  private TransactionTemplate transactionTemplate;
+
+  @PostConstruct
+  void init() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  @Transactional
+  public UploadSessionDto createSession(UploadSessionRequest request, Authentication authentication) {
+    AccountPrincipal user = AccountPrincipal.of(authentication);
+
+    if (!StringUtils.hasText(request.name())) {
+      throw new IllegalArgumentException("File name must not be blank");
+    }
+
+    if (request.size() == null || request.size() <= 0) {
+      throw new IllegalArgumentException("File size must be greater than zero");
+    }
+
+    if (request.size() > maxFileSize.toBytes()) {
+      throw new IllegalArgumentException(String.format("File exceeds the maximum upload size of %s", maxFileSize));
+    }
+
+    // The principal may come from the user cache, so check the balance the debit will actually see.
+    if (creditService.balance(user) < 1) {
+      throw new InsufficentCreditException();
+    }
+
+    Instant now = Instant.now();
+    UploadSession session = UploadSession.builder()
+      .uuid(UUID.randomUUID().toString())
+      .name(request.name())
+      .type(StringUtils.hasText(request.type()) ? request.type() : "application/octet-stream")
+      .size(request.size())
+      .chunkSize(chunkSize.toBytes())
+      .createdAt(now)
+      .expiresAt(now.plusSeconds(expiration))
+      .user(owner(user))
+      .build();
+
+    uploadSessionRepository.save(session);
+    createDirectory(sessionPath(session));
+
+    return mapToDto(session);
+  }
+
+  public UploadSessionDto getSession(String uuid, Authentication authentication) {
+    return mapToDto(findOwnedSession(uuid, authentication));
+  }
+
+  public UploadSessionDto uploadChunk(String uuid, int index, InputStream inputStream, Authentication authentication) {
+    UploadSession session = findOwnedSession(uuid, authentication);
+    requireOpen(session);
+
+    if (index < 0 || index >= session.getChunkCount()) {
+      throw new IllegalArgumentException(String.format("Chunk index must be between 0 and %d", session.getChunkCount() - 1));
+    }
+
+    Path sessionPath = sessionPath(session);
+    createDirectory(sessionPath);
+
+    long expectedLength = session.getChunkLength(index);
+    Path tempPath = sessionPath.resolve(index + CHUNK_SUFFIX + "." + UUID.randomUUID());
+
+    try {
+      long written = 0;
+      try (OutputStream outputStream = Files.newOutputStream(tempPath, StandardOpenOption.CREATE_NEW)) {
+        byte[] buffer = new byte[8192];
+        int read;
+        while (written <= expectedLength && (read = inputStream.read(buffer)) != -1) {
+          outputStream.write(buffer, 0, read);
+          written += read;
+        }
+      }
+
+      if (written != expectedLength) {
+        throw new IllegalArgumentException(String.format("Chunk %d must be exactly %d bytes but was %d", index, expectedLength, written));
+      }
+
+      Files.move(tempPath, chunkPath(session, index), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error saving chunk", e);
+    } finally {
+      deleteQuietly(tempPath);
+    }
+
+    return mapToDto(session);
+  }
+
+  // Claims the session, assembles with no transaction open, then inserts the file and drops the session in one short transaction.
+  public FileDto completeSession(String uuid, Authentication authentication) {
+    AccountPrincipal user = AccountPrincipal.of(authentication);
+    UploadSession session = findOwnedSession(uuid, authentication);
+
+    List<Integer> receivedChunks = receivedChunks(session);
+    if (receivedChunks.size() != session.getChunkCount()) {
+      throw new IllegalStateException(String.format("Upload session is missing %d of %d chunks", session.getChunkCount() - receivedChunks.size(), session.getChunkCount()));
+    }
+
+    Integer claimed = transactionTemplate.execute(status -> uploadSessionRepository.claim(uuid, Instant.now()));
+    if (claimed == null || claimed == 0) {
+      throw new IllegalStateException("Upload session is already being completed");
+    }
+
+    File file = null;
+    try {
+      file = assemble(session);
+      File assembled = file;
+      transactionTemplate.executeWithoutResult(status -> {
+        creditService.reserve(user, 1);
+        fileRepository.save(assembled);
+        eventPublisher.publishEvent(new FilesUploadedEvent(List.of(DownloadTarget.of(assembled))));
+        uploadSessionRepository.delete(session);
+        afterCommit(() -> deleteSessionDirectory(session));
+      });
+    } catch (RuntimeException e) {
+      discardAssembly(file);
+      transactionTemplate.executeWithoutResult(status -> uploadSessionRepository.releaseClaim(uuid));
+      throw e;
+    }
+
+    return FileService.mapTODto(file);
+  }
+
+  @Transactional
+  public void abortSession(String uuid, Authentication authentication) {
+    UploadSession session = findOwnedSession(uuid, authentication);
+    requireOpen(session);
+    uploadSessionRepository.delete(session);
+    afterCommit(() -> deleteSessionDirectory(session));
+  }
+
+  @Transactional
+  @Scheduled(fixedDelayString = "${spring.application.file.session.cleanup-interval:3600000}")
+  public void purgeExpiredSessions() {
+    List<UploadSession> sessions = uploadSessionRepository.findByExpiresAtBefore(Instant.now());
+    for (UploadSession session : sessions) {
+      deleteSessionDirectory(session);
+    }
+
+    uploadSessionRepository.deleteAll(sessions);
+    if (!sessions.isEmpty()) {
+      log.info("Purged {} expired upload sessions", sessions.size());
+    }
+  }
+
+  private File assemble(UploadSession session) {
+    String fileName = session.getUuid() + "." + StringUtils.getFilenameExtension(session.getName());
+    MessageDigest digest = FileService.sha256();
+    String checksum;
+    StoredContent stored;
+
+    try {
+      Path tempFile = blobService.createTempFile();
+      try (OutputStream outputStream = Files.newOutputStream(tempFile, StandardOpenOption.CREATE_NEW)) {
+        // A buffered stream copy rather than FileChannel.transferTo, since every chunk is hashed on the way through.
+        for (int index = 0; index < session.getChunkCount(); index++) {
+          try (InputStream chunk = new DigestInputStream(Files.newInputStream(chunkPath(session, index)), digest)) {
+            chunk.transferTo(outputStream);
+          }
+        }
+      } catch (IOException e) {
+        deleteQuietly(tempFile);
+        throw e;
+      }
+
+      checksum = HexFormat.of().formatHex(digest.digest());
+      stored = blobService.commit(tempFile, fileName, checksum, session.getSize());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error assembling upload", e);
+    }
+
+    return File.builder()
+      .uuid(session.getUuid())
+      .name(session.getName())
+      .type(session.getType())
+      .size(session.getSize())
+      .isPublic(false)
+      .user(session.getUser())
+      .uploadedAt(Instant.now())
+      .location(stored.location())
+      .segment(stored.segment())
+      .segmentOffset(stored.offset())
+      .checksum(checksum)
+      .build();
+  }
+
+  private void discardAssembly(File file) {
+    if (file == null) {
+      return;
+    }
+
+    try {
+      blobService.release(file);
+    } catch (IOException e) {
+      log.error("Error discarding file: {}", e.getMessage());
+    }
+  }
+
+  private void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+
+  private UploadSession findOwnedSession(String uuid, Authentication authentication) {
+    return ownedSession(uploadSessionRepository.findByUuid(uuid), authentication);
+  }
+
+  private UploadSession ownedSession(Optional<UploadSession> found, Authentication authentication) {
+    UploadSession session = found.orElseThrow(
+      () -> new EntityNotFoundException("Upload session not found")
+    );
+
+    if (!session.getUser().getUsername().equals(authentication.getName())) {
+      throw new AccessDeniedException();
+    }
+
+    if (session.isExpired()) {
+      throw new IllegalStateException("Upload session has expired");
+    }
+
+    return session;
+  }
+
+  private User owner(AccountPrincipal principal) {
+    return principal instanceof User user ? user : userRepository.getReferenceById(principal.getId());
+  }
+
+  private void requireOpen(UploadSession session) {
+    if (session.isCompleting()) {
+      throw new IllegalStateException("Upload session is being completed");
+    }
+  }
+
+  private List<Integer> receivedChunks(UploadSession session) {
+    Path sessionPath = sessionPath(session);
+    if (!Files.isDirectory(sessionPath)) {
+      return List.of();
+    }
+
+    try (Stream<Path> paths = Files.list(sessionPath)) {
+      return paths
+        .map(p -> p.getFileName().toString())
+        .filter(name -> name.endsWith(CHUNK_SUFFIX))
+        .map(name -> Integer.valueOf(name.substring(0, name.length() - CHUNK_SUFFIX.length())))
+        .sorted()
+        .toList();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error reading upload session", e);
+    }
+  }
+
+  private Path sessionPath(UploadSession session) {
+    return Paths.get(uploadDir, "sessions", session.getUuid()).toAbsolutePath().normalize();
+  }
+
+  private Path chunkPath(UploadSession session, int index) {
+    return sessionPath(session).resolve(index + CHUNK_SUFFIX);
+  }
+
+  private void createDirectory(Path path) {
+    try {
+      Files.createDirectories(path);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Error creating upload session directory", e);
+    }
+  }
+
+  private void deleteSessionDirectory(UploadSession session) {
+    try {
+      FileSystemUtils.deleteRecursively(sessionPath(session));
+    } catch (IOException e) {
+      log.error("Error deleting upload session: {}", e.getMessage());
+    }
+  }
+
+  private void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      log.error("Error deleting file: {}", e.getMessage());
+    }
+  }
+
+  private UploadSessionDto mapToDto(UploadSession session) {
+    return new UploadSessionDto(
+      session.getUuid(),
+      session.getName(),
+      session.getType(),
+      session.getSize(),
+      session.getChunkSize(),
+      session.getChunkCount(),
+      receivedChunks(session),
+      session.getExpiresAt()
+    );
+  }
+}
@@ -14,7 +14,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -23,6 +22,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.example.cloud_share_api.infrastructure.security.JwtFilter;
+import com.example.cloud_share_api.infrastructure.security.RateLimitFilter;
 import com.example.cloud_share_api.user.UserService;
 
 @Configuration
@@ -32,16 +32,17 @@ public class SecurityConfig {
   private String clientUrl;
 
   @Bean
-  SecurityFilterChain securityFilterChain(HttpSecurity http, CorsConfigurationSource configutationSource, AuthenticationProvider authenticationProvider, JwtFilter jwtFilter) throws Exception {
+  SecurityFilterChain securityFilterChain(HttpSecurity http, CorsConfigurationSource configutationSource, AuthenticationProvider authenticationProvider, JwtFilter jwtFilter, RateLimitFilter rateLimitFilter) throws Exception {
     http.csrf(csrf -> csrf.disable());
     http.cors(cors -> cors.configurationSource(configutationSource));
     http.authorizeHttpRequests(request -> {
-      request.requestMatchers("/error", "/favicon", "/api/v1/auth/**", "/api/v1/uploads/public/**", "/api/v1/users/reset-password/*").permitAll();
+      request.requestMatchers("/error", "/favicon", "/api/v1/auth/**", "/api/v1/uploads/public/**", "/api/v1/uploads/signed/**", "/api/v1/users/reset-password/*").permitAll();
       request.anyRequest().authenticated();
     });
     http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
     http.authenticationProvider(authenticationProvider);
     http.addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+    http.addFilterBefore(rateLimitFilter, JwtFilter.class);
     return http.build();
   }
 
@@ -49,6 +50,7 @@ public class SecurityConfig {
   AuthenticationProvider authenticationProvider(UserService userService, PasswordEncoder passwordEncoder) {
     DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider(userService);
     authenticationProvider.setPasswordEncoder(passwordEncoder);
+    authenticationProvider.setUserDetailsPasswordService(userService);
     return authenticationProvider;
   }
 
@@ -63,16 +65,11 @@ public class SecurityConfig {
     CorsConfiguration configuration = new CorsConfiguration();
     configuration.setAllowedOrigins(List.of(clientUrl));
     configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-    configuration.setAllowedHeaders(List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.ACCEPT, HttpHeaders.AUTHORIZATION, HttpHeaders.ORIGIN));
-    configuration.setExposedHeaders(List.of(HttpHeaders.CONTENT_DISPOSITION, "X-File-Name"));
+    configuration.setAllowedHeaders(List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.ACCEPT, HttpHeaders.AUTHORIZATION, HttpHeaders.ORIGIN, HttpHeaders.RANGE, HttpHeaders.IF_RANGE, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE, "X-Upload-Mode"));
+    configuration.setExposedHeaders(List.of(HttpHeaders.CONTENT_DISPOSITION, HttpHeaders.ACCEPT_RANGES, HttpHeaders.CONTENT_RANGE, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED, HttpHeaders.RETRY_AFTER, "X-File-Name", "X-Next-Cursor"));
 
     UrlBasedCorsConfigurationSource urlBasedCorsConfigurationSource = new UrlBasedCorsConfigurationSource();
     urlBasedCorsConfigurationSource.registerCorsConfiguration("/**", configuration);
     return urlBasedCorsConfigurationSource;
   }
-
-  @Bean
-  PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
-  }
 }
@@ -0,0 +1,59 @@
+package com.example.cloud_share_api.infrastructure.config;
+
+import java.net.URI;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+@Configuration
+@ConditionalOnProperty(name = "spring.application.file.storage.type", havingValue = "s3")
+public class StorageConfig {
+  @Value("${spring.application.file.storage.s3.endpoint:}")
+  private String endpoint;
+
+  @Value("${spring.application.file.storage.s3.region:us-east-1}")
+  private String region;
+
+  @Value("${spring.application.file.storage.s3.access-key:}")
+  private String accessKey;
+
+  @Value("${spring.application.file.storage.s3.secret-key:}")
+  private String secretKey;
+
+  @Value("${spring.application.file.storage.s3.path-style-access:false}")
+  private boolean pathStyleAccess;
+
+  @Value("${spring.application.file.storage.s3.max-connections:64}")
+  private int maxConnections;
+
+  @Bean(destroyMethod = "close")
+  S3Client s3Client() {
+    S3ClientBuilder builder = S3Client.builder()
+      .region(Region.of(region))
+      .forcePathStyle(pathStyleAccess)
+      .httpClientBuilder(ApacheHttpClient.builder().maxConnections(maxConnections));
+
+    if (StringUtils.hasText(endpoint)) {
+      builder.endpointOverride(URI.create(endpoint));
+    }
+
+    if (StringUtils.hasText(accessKey)) {
+      builder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+    } else {
+      builder.credentialsProvider(DefaultCredentialsProvider.builder().build());
+    }
+
+    return builder.build();
+  }
+}
@@ -0,0 +1,7 @@
+package com.example.cloud_share_api.infrastructure.exceptions;
+
+public class PasswordHashingUnavailableException extends RuntimeException {
+  public PasswordHashingUnavailableException() {
+    super("Too many password operations in progress, please retry shortly");
+  }
+}
@@ -0,0 +1,13 @@
+package com.example.cloud_share_api.infrastructure.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+  private final long retryAfterSeconds;
+
+  public RateLimitExceededException(long retryAfterSeconds) {
+    super("Too many requests, please retry later");
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+}
@@ -2,6 +2,7 @@ package com.example.cloud_share_api.infrastructure.handler;
 
 import java.time.Instant;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -13,6 +14,8 @@ import com.example.cloud_share_api.infrastructure.exceptions.DuplicateEntityExce
 import com.example.cloud_share_api.infrastructure.exceptions.ExpiredTokenException;
 import com.example.cloud_share_api.infrastructure.exceptions.InsufficentCreditException;
 import com.example.cloud_share_api.infrastructure.exceptions.InvalidTokenException;
+import com.example.cloud_share_api.infrastructure.exceptions.PasswordHashingUnavailableException;
+import com.example.cloud_share_api.infrastructure.exceptions.RateLimitExceededException;
 import com.example.cloud_share_api.infrastructure.exceptions.TokenAlreadyUsedException;
 
 import io.jsonwebtoken.ExpiredJwtException;
@@ -100,6 +103,36 @@ public class GlobalExceptionHandler {
     );
   }
 
+  @ExceptionHandler(PasswordHashingUnavailableException.class)
+  public ResponseEntity<ErrorResponse> handlePasswordHashingUnavailable(PasswordHashingUnavailableException e, HttpServletRequest request) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+      .header(HttpHeaders.RETRY_AFTER, "1")
+      .body(
+        new ErrorResponse(
+          Instant.now(), 
+          HttpStatus.SERVICE_UNAVAILABLE.value(),
+          "Service Unavailable",
+          e.getMessage(),
+          request.getRequestURI()
+        )
+      );
+  }
+
+  @ExceptionHandler(RateLimitExceededException.class)
+  public ResponseEntity<ErrorResponse> handleRateLimitExceeded(RateLimitExceededException e, HttpServletRequest request) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+      .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+      .body(
+        new ErrorResponse(
+          Instant.now(), 
+          HttpStatus.TOO_MANY_REQUESTS.value(),
+          "Too Many Requests",
+          e.getMessage(),
+          request.getRequestURI()
+        )
+      );
+  }
+
   @ExceptionHandler(Exception.class) 
   public ResponseEntity<ErrorResponse> handleException(Exception e, HttpServletRequest request) {
     e.printStackTrace();
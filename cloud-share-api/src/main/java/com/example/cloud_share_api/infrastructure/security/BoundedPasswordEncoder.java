@@ -0,0 +1,131 @@
+package com.example.cloud_share_api.infrastructure.security;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.example.cloud_share_api.infrastructure.exceptions.PasswordHashingUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class BoundedPasswordEncoder implements PasswordEncoder {
+  private static final String BCRYPT = "bcrypt";
+
+  private final MeterRegistry meterRegistry;
+
+  @Value("${spring.security.password.encoder:bcrypt}")
+  private String encoderId;
+
+  @Value("${spring.security.password.bcrypt-strength:10}")
+  private int bcryptStrength;
+
+  @Value("${spring.security.password.workers:0}")
+  private int workers;
+
+  @Value("${spring.security.password.queue-capacity:64}")
+  private int queueCapacity;
+
+  @Value("${spring.security.password.max-wait:5s}")
+  private Duration maxWait;
+
+  private PasswordEncoder delegate;
+  private ThreadPoolExecutor executor;
+  private Timer encodeTimer;
+  private Timer matchesTimer;
+  private Counter rejected;
+
+  @PostConstruct
+  void init() {
+    Map<String, PasswordEncoder> encoders = Map.of(
+      BCRYPT, new BCryptPasswordEncoder(bcryptStrength),
+      "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+    );
+    if (!encoders.containsKey(encoderId)) {
+      throw new IllegalStateException(String.format("Unsupported password encoder '%s'", encoderId));
+    }
+
+    DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(encoderId, encoders);
+    delegating.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT));
+    delegate = delegating;
+
+    int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-"));
+
+    encodeTimer = Timer.builder("password.hash.duration").tag("operation", "encode").register(meterRegistry);
+    matchesTimer = Timer.builder("password.hash.duration").tag("operation", "matches").register(meterRegistry);
+    rejected = Counter.builder("password.hash.rejected").register(meterRegistry);
+    Gauge.builder("password.hash.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+    Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return submit(encodeTimer, () -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  private <T> T submit(Timer timer, Callable<T> task) {
+    Future<T> future;
+    try {
+      future = executor.submit(() -> timer.recordCallable(task));
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new PasswordHashingUnavailableException();
+    }
+
+    try {
+      return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      rejected.increment();
+      throw new PasswordHashingUnavailableException();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new PasswordHashingUnavailableException();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
@@ -1,18 +1,24 @@
 package com.example.cloud_share_api.infrastructure.security;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import com.example.cloud_share_api.user.UserService;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,6 +31,14 @@ public class JwtFilter extends OncePerRequestFilter {
   private final JwtProvider jwtProvider;
   private final UserService userService;
   private final HandlerExceptionResolver handlerExceptionResolver;
+  private final SecurityVersionTable securityVersionTable;
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+  @Value("${spring.security.jwt.stateless.enabled:false}")
+  private boolean stateless;
+
+  @Value("${spring.security.jwt.stateless.paths:/api/v1/uploads/**}")
+  private List<String> statelessPaths;
 
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -38,11 +52,13 @@ public class JwtFilter extends OncePerRequestFilter {
     token = token.substring(7);
     
     try {
-      String username = jwtProvider.getUsername(token);
+      Claims claims = jwtProvider.extractClaims(token);
+      String username = claims.getSubject();
       if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-        UserDetails userDetails = userService.loadUserByUsername(username);
+        UserDetails userDetails = statelessPrincipal(request, claims)
+          .orElseGet(() -> userService.loadCachedUserByUsername(username));
         
-        if (jwtProvider.validToken(userDetails, token)) {
+        if (jwtProvider.validToken(userDetails, claims)) {
           UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
           authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -55,4 +71,15 @@ public class JwtFilter extends OncePerRequestFilter {
       handlerExceptionResolver.resolveException(request, response, null, e);
     }
   } 
+
+  private Optional<UserDetails> statelessPrincipal(HttpServletRequest request, Claims claims) {
+    Long userId = jwtProvider.getUserId(claims);
+    if (!stateless || userId == null || !HttpMethod.GET.matches(request.getMethod())
+      || statelessPaths.stream().noneMatch(path -> pathMatcher.match(path, request.getServletPath()))) {
+      return Optional.empty();
+    }
+
+    int version = securityVersionTable.current(userId, jwtProvider.getVersion(claims));
+    return Optional.of(new StatelessPrincipal(userId, claims.getSubject(), version));
+  }
 }
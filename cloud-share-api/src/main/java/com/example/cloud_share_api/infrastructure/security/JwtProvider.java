@@ -1,7 +1,12 @@
 package com.example.cloud_share_api.infrastructure.security;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
 
 import javax.crypto.SecretKey;
 
@@ -9,60 +14,130 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.example.cloud_share_api.user.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class JwtProvider {
+  private static final String USER_ID_CLAIM = "uid";
+  private static final String VERSION_CLAIM = "ver";
+
   @Value("${spring.security.jwt.secret-key}")
   private String secretKey;
 
   @Value("${spring.security.jwt.expiration}")
   private Integer expiration;
 
-  public String generateToken(String username, Integer expiration) {
+  @Value("${spring.security.jwt.verified-cache.max-size:1000}")
+  private long verifiedCacheSize;
+
+  @Value("${spring.security.jwt.verified-cache.ttl:30s}")
+  private Duration verifiedCacheTtl;
+
+  private SecretKey key;
+  private JwtParser parser;
+  private Cache<String, Claims> verifiedTokens;
+
+  @PostConstruct
+  void init() {
+    key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+    parser = Jwts.parser()
+      .verifyWith(key)
+      .build();
+
+    if (verifiedCacheSize > 0) {
+      verifiedTokens = Caffeine.newBuilder()
+        .maximumSize(verifiedCacheSize)
+        .expireAfter(Expiry.creating((String hash, Claims claims) -> {
+          Duration remaining = Duration.between(Instant.now(), claims.getExpiration().toInstant());
+          return remaining.isNegative() ? Duration.ZERO : remaining.compareTo(verifiedCacheTtl) < 0 ? remaining : verifiedCacheTtl;
+        }))
+        .build();
+    }
+  }
+
+  public String generateToken(User user, Integer expiration) {
     return Jwts.builder()
-      .subject(username)
+      .subject(user.getUsername())
+      .claim(USER_ID_CLAIM, user.getId())
+      .claim(VERSION_CLAIM, user.getSecurityVersion())
       .issuedAt(Date.from(Instant.now()))
       .expiration(Date.from(Instant.now().plusSeconds(expiration)))
-      .signWith(getKey())
+      .signWith(key)
       .compact();
   }
 
-  public String generateToken(String username) {
-    return generateToken(username, this.expiration);
+  public String generateToken(User user) {
+    return generateToken(user, this.expiration);
   }
 
   public Claims extractClaims(String token) {
-    try {
-      return Jwts.parser()
-        .verifyWith(getKey())
-        .build()
-        .parseSignedClaims(token)
-        .getPayload();
-    } catch (JwtException e) {
-      throw new JwtException(e.getMessage());
-    } catch (Exception e) {
-      throw new IllegalArgumentException();
+    if (verifiedTokens == null) {
+      return parseClaims(token);
+    }
+
+    return verifiedTokens.get(hash(token), h -> parseClaims(token));
+  }
+
+  public boolean validToken(UserDetails userDetails, Claims claims) {
+    return userDetails.getUsername().equals(claims.getSubject())
+      && claims.getExpiration().after(new Date())
+      && securityVersion(userDetails) <= getVersion(claims);
+  }
+
+  // A token newer than the principal only means our copy is stale; older ones predate a credential change.
+  private int securityVersion(UserDetails userDetails) {
+    if (userDetails instanceof User user) {
+      return user.getSecurityVersion();
     }
+
+    if (userDetails instanceof StatelessPrincipal principal) {
+      return principal.securityVersion();
+    }
+
+    return 0;
   }
 
-  public String getUsername(String token) {
-    return extractClaims(token).getSubject();
+  public Long getUserId(Claims claims) {
+    return claims.get(USER_ID_CLAIM, Long.class);
   }
 
-  public boolean isExpired(String token) {
-    return extractClaims(token).getExpiration().before(new Date());
+  public int getVersion(Claims claims) {
+    Integer version = claims.get(VERSION_CLAIM, Integer.class);
+    return version == null ? 0 : version;
   }
 
-  public boolean validToken(UserDetails userDetails, String token) {
-    return userDetails.getUsername().equals(getUsername(token)) && !isExpired(token);
+  private Claims parseClaims(String token) {
+    try {
+      Claims claims = parser.parseSignedClaims(token).getPayload();
+      // Access tokens never carry an audience; anything that does (e.g. a download link) was minted for another purpose.
+      if (claims.getAudience() != null && !claims.getAudience().isEmpty()) {
+        throw new JwtException("Token is not an access token");
+      }
+
+      return claims;
+    } catch (JwtException e) {
+      throw new JwtException(e.getMessage());
+    } catch (Exception e) {
+      throw new IllegalArgumentException();
+    }
   }
 
-  private SecretKey getKey() {
-    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(this.secretKey));
+  private String hash(String token) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
   }
 }
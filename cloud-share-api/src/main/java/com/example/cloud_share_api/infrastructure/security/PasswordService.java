@@ -1,5 +1,6 @@
 package com.example.cloud_share_api.infrastructure.security;
 
+import java.time.Instant;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -14,6 +15,7 @@ import com.example.cloud_share_api.email.MailTemplate;
 import com.example.cloud_share_api.token.TokenService;
 import com.example.cloud_share_api.token.TokenType;
 import com.example.cloud_share_api.user.User;
+import com.example.cloud_share_api.user.UserCache;
 import com.example.cloud_share_api.user.UserRepository;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -24,6 +26,8 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class PasswordService {
   private final UserRepository userRepository;
+  private final UserCache userCache;
+  private final SecurityVersionTable securityVersionTable;
   private final TokenService tokenService;
   private final MailService mailService;
 
@@ -43,15 +47,13 @@ public class PasswordService {
     User user = findUserByEmail(email);
     tokenService.validateToken(request.token(), TokenType.RESET_PASSWORD, user);
 
-    user.setPassword(passwordEncoder.encode(request.password()));
-    userRepository.save(user);
+    updatePassword(user, request.password());
   }
 
   @Transactional
   public void resetCurrentUserPassword(Authentication authentication, ResetPasswordRequest request) {
     User user = (User) authentication.getPrincipal();
-    user.setPassword(passwordEncoder.encode(request.password()));
-    userRepository.save(user);
+    updatePassword(user, request.password());
   }
 
   public void renewToken(String email) {
@@ -61,6 +63,12 @@ public class PasswordService {
   }
 
 
+  private void updatePassword(User user, String password) {
+    userRepository.updatePassword(user.getId(), passwordEncoder.encode(password), Instant.now());
+    userCache.invalidate(user.getEmail());
+    securityVersionTable.refreshAfterCommit();
+  }
+
   private User findUserByEmail(String email) {
     return userRepository.findByEmail(email).orElseThrow(
       () -> new EntityNotFoundException("User not found")
@@ -0,0 +1,202 @@
+package com.example.cloud_share_api.infrastructure.security;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import com.example.cloud_share_api.infrastructure.exceptions.RateLimitExceededException;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+  private static final String EMAIL = "email";
+
+  private final HandlerExceptionResolver handlerExceptionResolver;
+  private final ObjectMapper objectMapper;
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+  @Value("${spring.security.rate-limit.enabled:true}")
+  private boolean enabled;
+
+  @Value("${spring.security.rate-limit.window:1m}")
+  private Duration window;
+
+  @Value("${spring.security.rate-limit.sketch-depth:4}")
+  private int sketchDepth;
+
+  @Value("${spring.security.rate-limit.sketch-width:4096}")
+  private int sketchWidth;
+
+  @Value("${spring.security.rate-limit.max-body-size:8KB}")
+  private DataSize maxBodySize;
+
+  @Value("${spring.security.rate-limit.routes:"
+    + "/api/v1/auth/login=20,"
+    + "/api/v1/auth/sign-up=5,"
+    + "/api/v1/auth/refresh=30,"
+    + "/api/v1/auth/forgot-password/{email}=5,"
+    + "/api/v1/auth/renew-token=5,"
+    + "/api/v1/auth/renew-password-token=5,"
+    + "/api/v1/users/reset-password/{email}=5}")
+  private List<String> routes;
+
+  private List<Route> rules;
+  private SlidingWindowSketch sketch;
+
+  @PostConstruct
+  void init() {
+    rules = routes.stream().map(Route::parse).toList();
+    sketch = new SlidingWindowSketch(sketchDepth, sketchWidth, window.toMillis());
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled || !(HttpMethod.POST.matches(request.getMethod()) || HttpMethod.PATCH.matches(request.getMethod()));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+    Optional<Route> route = rules.stream()
+      .filter(r -> pathMatcher.match(r.pattern(), request.getServletPath()))
+      .findFirst();
+
+    HttpServletRequest limited = route.isPresent() && isJsonBody(request) ? new CachedBodyRequest(request) : request;
+
+    if (route.isPresent() && !permit(route.get(), limited)) {
+      long retryAfter = Math.max(1, Duration.ofMillis(sketch.retryAfterMillis(System.currentTimeMillis())).toSeconds());
+      handlerExceptionResolver.resolveException(limited, response, null, new RateLimitExceededException(retryAfter));
+      return;
+    }
+
+    filterChain.doFilter(limited, response);
+  }
+
+  private boolean permit(Route route, HttpServletRequest request) {
+    long now = System.currentTimeMillis();
+    boolean permitted = sketch.increment(route.pattern() + "|ip|" + request.getRemoteAddr(), now) <= route.limit();
+
+    String email = email(route, request);
+    if (StringUtils.hasText(email)) {
+      permitted &= sketch.increment(route.pattern() + "|email|" + email.toLowerCase(), now) <= route.limit();
+    }
+
+    return permitted;
+  }
+
+  private String email(Route route, HttpServletRequest request) {
+    if (route.pattern().contains("{" + EMAIL + "}")) {
+      Map<String, String> variables = pathMatcher.extractUriTemplateVariables(route.pattern(), request.getServletPath());
+      return variables.get(EMAIL);
+    }
+
+    if (request instanceof CachedBodyRequest cached) {
+      return cached.field(objectMapper, EMAIL);
+    }
+
+    return request.getParameter(EMAIL);
+  }
+
+  private boolean isJsonBody(HttpServletRequest request) {
+    long length = request.getContentLengthLong();
+    return length > 0 && length <= maxBodySize.toBytes()
+      && request.getContentType() != null
+      && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+  }
+
+  private static class CachedBodyRequest extends HttpServletRequestWrapper {
+    private final byte[] body;
+
+    CachedBodyRequest(HttpServletRequest request) throws IOException {
+      super(request);
+      this.body = request.getInputStream().readAllBytes();
+    }
+
+    String field(ObjectMapper objectMapper, String name) {
+      try {
+        JsonNode value = objectMapper.readTree(body).get(name);
+        return value != null && value.isTextual() ? value.asText() : null;
+      } catch (IOException e) {
+        return null;
+      }
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream input = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public int read() {
+          return input.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+          return input.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+          return input.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      String encoding = getCharacterEncoding();
+      Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+      return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+  }
+
+  private record Route(String pattern, int limit) {
+    static Route parse(String rule) {
+      int separator = rule.lastIndexOf('=');
+      if (separator < 0) {
+        throw new IllegalStateException(String.format("Invalid rate limit rule '%s', expected <pattern>=<limit>", rule));
+      }
+
+      return new Route(rule.substring(0, separator).trim(), Integer.parseInt(rule.substring(separator + 1).trim()));
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.cloud_share_api.infrastructure.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.cloud_share_api.user.SecurityVersion;
+import com.example.cloud_share_api.user.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class SecurityVersionTable {
+  private static final Duration OVERLAP = Duration.ofMinutes(1);
+
+  private final UserRepository userRepository;
+  private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+
+  @Value("${spring.security.jwt.stateless.enabled:false}")
+  private boolean enabled;
+
+  private volatile Instant refreshedAt;
+
+  public int current(Long userId) {
+    if (refreshedAt == null) {
+      refresh();
+    }
+
+    return versions.getOrDefault(userId, 0);
+  }
+
+  public int current(Long userId, int tokenVersion) {
+    int version = current(userId);
+    if (tokenVersion <= version) {
+      return version;
+    }
+
+    // The token was issued after a change this node has not loaded yet.
+    refresh();
+    return current(userId);
+  }
+
+  @Scheduled(fixedDelayString = "${spring.security.jwt.stateless.refresh-interval:10000}")
+  public void refreshScheduled() {
+    if (enabled) {
+      refresh();
+    }
+  }
+
+  public void refreshAfterCommit() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      refresh();
+      return;
+    }
+
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        refresh();
+      }
+    });
+  }
+
+  synchronized void refresh() {
+    Instant now = Instant.now();
+    Instant since = refreshedAt == null ? Instant.EPOCH : refreshedAt.minus(OVERLAP);
+
+    for (SecurityVersion version : userRepository.findSecurityVersionsChangedSince(since)) {
+      versions.merge(version.userId(), version.version(), Math::max);
+    }
+
+    refreshedAt = now;
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.cloud_share_api.infrastructure.security;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+class SlidingWindowSketch {
+  private final int depth;
+  private final int width;
+  private final long windowMillis;
+  private final long[] seeds;
+  private final AtomicReference<Windows> windows;
+
+  SlidingWindowSketch(int depth, int width, long windowMillis) {
+    this.depth = depth;
+    this.width = width;
+    this.windowMillis = windowMillis;
+    this.seeds = new SecureRandom().longs(depth).toArray();
+    this.windows = new AtomicReference<>(new Windows(0, counters(), counters()));
+  }
+
+  double increment(String key, long now) {
+    Windows current = rotate(now / windowMillis);
+    int count = Integer.MAX_VALUE;
+    int previous = Integer.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      int slot = row * width + (int) Math.floorMod(hash(key, seeds[row]), (long) width);
+      count = Math.min(count, current.current().incrementAndGet(slot));
+      previous = Math.min(previous, current.previous().get(slot));
+    }
+
+    double elapsed = (double) (now % windowMillis) / windowMillis;
+    return previous * (1 - elapsed) + count;
+  }
+
+  long retryAfterMillis(long now) {
+    return windowMillis - now % windowMillis;
+  }
+
+  private Windows rotate(long index) {
+    Windows windows = this.windows.get();
+    while (windows.index() < index) {
+      Windows next = new Windows(index, counters(), windows.index() == index - 1 ? windows.current() : counters());
+      if (this.windows.compareAndSet(windows, next)) {
+        return next;
+      }
+      windows = this.windows.get();
+    }
+
+    return windows;
+  }
+
+  private AtomicIntegerArray counters() {
+    return new AtomicIntegerArray(depth * width);
+  }
+
+  private static long hash(String key, long seed) {
+    long hash = seed;
+    for (int i = 0; i < key.length(); i++) {
+      hash = Long.rotateLeft(hash ^ key.charAt(i), 27) * 0x9e3779b97f4a7c15L;
+    }
+    return mix(hash ^ key.length());
+  }
+
+  private static long mix(long value) {
+    value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+    value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return value ^ (value >>> 33);
+  }
+
+  private record Windows(long index, AtomicIntegerArray current, AtomicIntegerArray previous) {}
+}
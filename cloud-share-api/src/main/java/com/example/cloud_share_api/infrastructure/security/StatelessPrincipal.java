@@ -0,0 +1,42 @@
+package com.example.cloud_share_api.infrastructure.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.example.cloud_share_api.user.AccountPrincipal;
+
+// Built from token claims alone; it deliberately carries no credit, password or profile data.
+public record StatelessPrincipal(
+  Long id,
+  String email,
+  int securityVersion
+) implements UserDetails, AccountPrincipal {
+  @Override
+  public Long getId() {
+    return id;
+  }
+
+  @Override
+  public String getEmail() {
+    return email;
+  }
+
+  @Override
+  public Collection<? extends GrantedAuthority> getAuthorities() {
+    return List.of(new SimpleGrantedAuthority("ROLE_User"));
+  }
+
+  @Override
+  public String getPassword() {
+    return null;
+  }
+
+  @Override
+  public String getUsername() {
+    return email;
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.cloud_share_api.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.cloud_share_api.file.StorageLayout;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@ConditionalOnProperty(name = "spring.application.file.storage.type", havingValue = "local", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LocalStorageBackend implements StorageBackend {
+  private final StorageLayout storageLayout;
+
+  @Override
+  public void put(String key, Path source) throws IOException {
+    Path target = storageLayout.uploadPath().resolve(key);
+    Files.createDirectories(target.getParent());
+    Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  @Override
+  public InputStream get(String key) throws IOException {
+    return Files.newInputStream(storageLayout.locate(key));
+  }
+
+  @Override
+  public InputStream get(String key, long offset, long length) throws IOException {
+    FileChannel channel = FileChannel.open(storageLayout.locate(key), StandardOpenOption.READ);
+    channel.position(offset);
+    return new RangeInputStream(Channels.newInputStream(channel), length);
+  }
+
+  @Override
+  public void delete(String key) throws IOException {
+    Files.deleteIfExists(storageLayout.locate(key));
+  }
+
+  @Override
+  public Optional<StorageObject> stat(String key) throws IOException {
+    Path path = storageLayout.locate(key);
+    if (!Files.exists(path)) {
+      return Optional.empty();
+    }
+
+    return Optional.of(new StorageObject(key, Files.size(path), Files.getLastModifiedTime(path).toInstant()));
+  }
+
+  @Override
+  public Optional<Path> localPath(String key) {
+    return Optional.of(storageLayout.locate(key));
+  }
+
+  @Override
+  public boolean supportsAppend() {
+    return true;
+  }
+}
@@ -0,0 +1,52 @@
+package com.example.cloud_share_api.infrastructure.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+class RangeInputStream extends FilterInputStream {
+  private long remaining;
+
+  RangeInputStream(InputStream in, long length) {
+    super(in);
+    this.remaining = length;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (remaining <= 0) {
+      return -1;
+    }
+
+    int b = super.read();
+    if (b >= 0) {
+      remaining--;
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (remaining <= 0) {
+      return -1;
+    }
+
+    int count = super.read(b, off, (int) Math.min(len, remaining));
+    if (count > 0) {
+      remaining -= count;
+    }
+    return count;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = super.skip(Math.min(n, remaining));
+    remaining -= skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return (int) Math.min(super.available(), remaining);
+  }
+}
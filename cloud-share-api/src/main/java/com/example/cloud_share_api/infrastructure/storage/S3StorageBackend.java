@@ -0,0 +1,162 @@
+package com.example.cloud_share_api.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+@Component
+@ConditionalOnProperty(name = "spring.application.file.storage.type", havingValue = "s3")
+@RequiredArgsConstructor
+public class S3StorageBackend implements StorageBackend {
+  private static final String CONTENT_TYPE = "application/octet-stream";
+
+  private final S3Client s3Client;
+
+  @Value("${spring.application.file.storage.s3.bucket}")
+  private String bucket;
+
+  @Value("${spring.application.file.storage.s3.part-size:16MB}")
+  private DataSize partSize;
+
+  @Value("${spring.application.file.storage.s3.upload-parallelism:4}")
+  private int uploadParallelism;
+
+  private ExecutorService uploadExecutor;
+
+  @PostConstruct
+  void init() {
+    uploadExecutor = Executors.newFixedThreadPool(uploadParallelism);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    uploadExecutor.shutdown();
+  }
+
+  @Override
+  public void put(String key, Path source) throws IOException {
+    long size = Files.size(source);
+
+    if (size <= partSize.toBytes()) {
+      s3Client.putObject(request -> request.bucket(bucket).key(key).contentType(CONTENT_TYPE), RequestBody.fromFile(source));
+    } else {
+      putMultipart(key, source, size);
+    }
+
+    Files.delete(source);
+  }
+
+  @Override
+  public InputStream get(String key) throws IOException {
+    return s3Client.getObject(request -> request.bucket(bucket).key(key));
+  }
+
+  @Override
+  public InputStream get(String key, long offset, long length) throws IOException {
+    String range = String.format("bytes=%d-%d", offset, offset + length - 1);
+    return s3Client.getObject(request -> request.bucket(bucket).key(key).range(range));
+  }
+
+  @Override
+  public void delete(String key) throws IOException {
+    s3Client.deleteObject(request -> request.bucket(bucket).key(key));
+  }
+
+  @Override
+  public Optional<StorageObject> stat(String key) throws IOException {
+    try {
+      HeadObjectResponse head = s3Client.headObject(request -> request.bucket(bucket).key(key));
+      return Optional.of(new StorageObject(key, head.contentLength(), head.lastModified()));
+    } catch (S3Exception e) {
+      if (e.statusCode() == 404) {
+        return Optional.empty();
+      }
+      throw e;
+    }
+  }
+
+  private void putMultipart(String key, Path source, long size) throws IOException {
+    String uploadId = s3Client.createMultipartUpload(request -> request.bucket(bucket).key(key).contentType(CONTENT_TYPE)).uploadId();
+
+    try {
+      long chunk = partSize.toBytes();
+      List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+      for (int partNumber = 1; (long) (partNumber - 1) * chunk < size; partNumber++) {
+        int number = partNumber;
+        long offset = (number - 1) * chunk;
+        long length = Math.min(chunk, size - offset);
+        parts.add(CompletableFuture.supplyAsync(() -> uploadPart(key, uploadId, number, source, offset, length), uploadExecutor));
+      }
+
+      List<CompletedPart> completed = parts.stream().map(CompletableFuture::join).toList();
+      s3Client.completeMultipartUpload(request -> request
+        .bucket(bucket)
+        .key(key)
+        .uploadId(uploadId)
+        .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+      );
+    } catch (CompletionException e) {
+      abort(key, uploadId);
+      if (e.getCause() instanceof UncheckedIOException io) {
+        throw io.getCause();
+      }
+      throw e;
+    } catch (RuntimeException e) {
+      abort(key, uploadId);
+      throw e;
+    }
+  }
+
+  private CompletedPart uploadPart(String key, String uploadId, int partNumber, Path source, long offset, long length) {
+    RequestBody body = RequestBody.fromContentProvider(() -> {
+      try {
+        FileChannel channel = FileChannel.open(source, StandardOpenOption.READ);
+        channel.position(offset);
+        return new RangeInputStream(Channels.newInputStream(channel), length);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, length, CONTENT_TYPE);
+
+    String eTag = s3Client.uploadPart(request -> request
+      .bucket(bucket)
+      .key(key)
+      .uploadId(uploadId)
+      .partNumber(partNumber)
+      .contentLength(length), body
+    ).eTag();
+
+    return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+  }
+
+  private void abort(String key, String uploadId) {
+    s3Client.abortMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId));
+  }
+}
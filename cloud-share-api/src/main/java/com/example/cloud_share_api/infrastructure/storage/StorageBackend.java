@@ -0,0 +1,32 @@
+package com.example.cloud_share_api.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface StorageBackend {
+  /**
+   * Stores the content of {@code source} under {@code key}. The source file is consumed.
+   */
+  void put(String key, Path source) throws IOException;
+
+  InputStream get(String key) throws IOException;
+
+  InputStream get(String key, long offset, long length) throws IOException;
+
+  void delete(String key) throws IOException;
+
+  Optional<StorageObject> stat(String key) throws IOException;
+
+  /**
+   * Returns a path on the local filesystem for {@code key} when the backend keeps objects on local disk.
+   */
+  default Optional<Path> localPath(String key) {
+    return Optional.empty();
+  }
+
+  default boolean supportsAppend() {
+    return false;
+  }
+}
@@ -0,0 +1,5 @@
+package com.example.cloud_share_api.infrastructure.storage;
+
+import java.time.Instant;
+
+public record StorageObject(String key, long size, Instant lastModified) {}
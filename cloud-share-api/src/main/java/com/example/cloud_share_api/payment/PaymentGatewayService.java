@@ -9,7 +9,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 import com.example.cloud_share_api.user.User;
-import com.example.cloud_share_api.user.UserRepository;
+import com.example.cloud_share_api.user.CreditService;
 import com.razorpay.Order;
 import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
@@ -23,7 +23,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class PaymentGatewayService {
   private final PaymentTransactionRepository paymentTransactionRepository;
-  private final UserRepository userRepository;
+  private final CreditService creditService;
 
   @Value("${razorpay.secret-key}")
   private String secretKey;
@@ -77,9 +77,7 @@ public class PaymentGatewayService {
       } else{ 
         paymentTransaction.setStatus(Status.SUCCESS);
         
-        User user = paymentTransaction.getUser();
-        user.setCredit(user.getCredit() + paymentTransaction.getCredits());
-        userRepository.save(user);
+        creditService.grant(paymentTransaction.getUser(), paymentTransaction.getCredits());
       }
 
       paymentTransactionRepository.save(paymentTransaction);
@@ -31,7 +31,7 @@ import lombok.Setter;
 public class PaymentTransaction {
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_transaction_seq_generator")
-  @SequenceGenerator(name = "payment_transaction_seq_generator", sequenceName = "payment_transaction_seq", allocationSize = 1, initialValue = 101)
+  @SequenceGenerator(name = "payment_transaction_seq_generator", sequenceName = "payment_transaction_seq", allocationSize = 50, initialValue = 101)
   @Column(name = "id")
   private Long id;
 
@@ -34,7 +34,7 @@ import lombok.Setter;
 public class Token { 
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "token_seq_generator")
-  @SequenceGenerator(name = "token_seq_generator", sequenceName = "token_seq", allocationSize = 1, initialValue = 101)
+  @SequenceGenerator(name = "token_seq_generator", sequenceName = "token_seq", allocationSize = 50, initialValue = 101)
   @Column(name = "id")
   private Long id;
 
@@ -0,0 +1,20 @@
+package com.example.cloud_share_api.user;
+
+import org.springframework.security.core.Authentication;
+
+import com.example.cloud_share_api.infrastructure.exceptions.AccessDeniedException;
+
+// Identity shared by the loaded User entity and the claims-only stateless principal.
+public interface AccountPrincipal {
+  Long getId();
+
+  String getEmail();
+
+  static AccountPrincipal of(Authentication authentication) {
+    if (authentication == null || !(authentication.getPrincipal() instanceof AccountPrincipal principal)) {
+      throw new AccessDeniedException();
+    }
+
+    return principal;
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.cloud_share_api.user;
+
+public class CreditReservation {
+  private final CreditService creditService;
+  private final AccountPrincipal user;
+  private int amount;
+
+  CreditReservation(CreditService creditService, AccountPrincipal user, int amount) {
+    this.creditService = creditService;
+    this.user = user;
+    this.amount = amount;
+  }
+
+  public int amount() {
+    return amount;
+  }
+
+  public synchronized void release(int count) {
+    int released = Math.min(count, amount);
+    if (released <= 0) {
+      return;
+    }
+
+    creditService.refund(user, released);
+    amount -= released;
+  }
+
+  public void releaseAll() {
+    release(amount);
+  }
+}
@@ -0,0 +1,66 @@
+package com.example.cloud_share_api.user;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.cloud_share_api.infrastructure.exceptions.InsufficentCreditException;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class CreditService {
+  private final UserRepository userRepository;
+  private final UserCache userCache;
+  private final PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate requiresNew;
+
+  @PostConstruct
+  void init() {
+    requiresNew = new TransactionTemplate(transactionManager);
+    requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  public CreditReservation reserve(AccountPrincipal user, int amount) {
+    Integer debited = requiresNew.execute(status -> userRepository.debitCredit(user.getId(), amount));
+    if (debited == null || debited == 0) {
+      throw new InsufficentCreditException();
+    }
+
+    userCache.invalidate(user.getEmail());
+
+    CreditReservation reservation = new CreditReservation(this, user, amount);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status != STATUS_COMMITTED) {
+            reservation.releaseAll();
+          }
+        }
+      });
+    }
+
+    return reservation;
+  }
+
+  public int balance(AccountPrincipal user) {
+    return userRepository.findCreditById(user.getId()).orElse(0);
+  }
+
+  public void grant(AccountPrincipal user, int amount) {
+    userRepository.addCredit(user.getId(), amount);
+    userCache.invalidate(user.getEmail());
+  }
+
+  void refund(AccountPrincipal user, int amount) {
+    requiresNew.executeWithoutResult(status -> userRepository.addCredit(user.getId(), amount));
+    userCache.invalidate(user.getEmail());
+  }
+}
@@ -0,0 +1,5 @@
+package com.example.cloud_share_api.user;
+
+import java.time.Instant;
+
+public record SecurityVersion(Long userId, int version, Instant changedAt) {}
@@ -1,6 +1,7 @@
 package com.example.cloud_share_api.user;
 
 import java.security.Principal;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 
@@ -28,10 +29,10 @@ import lombok.experimental.SuperBuilder;
 @SuperBuilder
 @Entity
 @Table(name = "app_user")
-public class User implements Principal, UserDetails {
+public class User implements Principal, UserDetails, AccountPrincipal {
   @Id
   @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq_generator")
-  @SequenceGenerator(name = "user_seq_generator", sequenceName = "user_seq", allocationSize = 1, initialValue = 101)
+  @SequenceGenerator(name = "user_seq_generator", sequenceName = "user_seq", allocationSize = 50, initialValue = 101)
   @Column(name = "id")
   private Long id;
 
@@ -53,6 +54,12 @@ public class User implements Principal, UserDetails {
   @Column(name = "is_verify", nullable = false)
   private boolean isVerify;
 
+  @Column(name = "security_version", nullable = false)
+  private int securityVersion;
+
+  @Column(name = "security_version_changed_at")
+  private Instant securityVersionChangedAt;
+
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
     return List.of(new SimpleGrantedAuthority("ROLE_User"));
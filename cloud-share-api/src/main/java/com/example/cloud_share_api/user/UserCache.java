@@ -0,0 +1,69 @@
+package com.example.cloud_share_api.user;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+public class UserCache {
+  private static final String CACHE_NAME = "users";
+
+  private final UserRepository userRepository;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${spring.security.user-cache.enabled:true}")
+  private boolean enabled;
+
+  @Value("${spring.security.user-cache.max-size:10000}")
+  private long maxSize;
+
+  @Value("${spring.security.user-cache.ttl:60s}")
+  private Duration ttl;
+
+  private Cache<String, User> cache;
+
+  @PostConstruct
+  void init() {
+    cache = Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .expireAfterWrite(ttl)
+      .recordStats()
+      .build();
+
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  public Optional<User> findByEmail(String email) {
+    if (!enabled) {
+      return userRepository.findByEmail(email);
+    }
+
+    return Optional.ofNullable(cache.get(email, e -> userRepository.findByEmail(e).orElse(null)));
+  }
+
+  public void invalidate(String email) {
+    cache.invalidate(email);
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          cache.invalidate(email);
+        }
+      });
+    }
+  }
+}
@@ -1,9 +1,36 @@
 package com.example.cloud_share_api.user;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
   Optional<User> findByEmail(String email);
+
+  @Modifying
+  @Query("update User u set u.credit = u.credit - :amount where u.id = :id and u.credit >= :amount")
+  int debitCredit(@Param("id") Long id, @Param("amount") int amount);
+
+  @Query("select u.credit from User u where u.id = :id")
+  Optional<Integer> findCreditById(@Param("id") Long id);
+
+  @Modifying
+  @Query("update User u set u.credit = u.credit + :amount where u.id = :id")
+  int addCredit(@Param("id") Long id, @Param("amount") int amount);
+
+  @Modifying
+  @Query("update User u set u.password = :password, u.securityVersion = u.securityVersion + 1, u.securityVersionChangedAt = :changedAt where u.id = :id")
+  int updatePassword(@Param("id") Long id, @Param("password") String password, @Param("changedAt") Instant changedAt);
+
+  @Modifying
+  @Query("update User u set u.password = :password where u.id = :id")
+  int rehashPassword(@Param("id") Long id, @Param("password") String password);
+
+  @Query("select new com.example.cloud_share_api.user.SecurityVersion(u.id, u.securityVersion, u.securityVersionChangedAt) from User u where u.securityVersionChangedAt > :since")
+  List<SecurityVersion> findSecurityVersionsChangedSince(@Param("since") Instant since);
 }
@@ -2,16 +2,19 @@ package com.example.cloud_share_api.user;
 
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
   private final UserRepository userRepository;
+  private final UserCache userCache;
 
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -20,6 +23,23 @@ public class UserService implements UserDetailsService {
     );
   }
 
+  public UserDetails loadCachedUserByUsername(String username) throws UsernameNotFoundException {
+    return userCache.findByEmail(username).orElseThrow(
+      () -> new UsernameNotFoundException(String.format("User with email '%s' not exists.", username))
+    );
+  }
+
+  @Override
+  @Transactional
+  public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+    User user = (User) userDetails;
+    userRepository.rehashPassword(user.getId(), newPassword);
+    userCache.invalidate(user.getEmail());
+
+    user.setPassword(newPassword);
+    return user;
+  }
+
   public UserDto getUserSummary(Authentication authentication) {
     User user = (User) authentication.getPrincipal();
     return new UserDto(user.getFirstname(), user.getLastname(), user.getEmail(), user.getCredit());
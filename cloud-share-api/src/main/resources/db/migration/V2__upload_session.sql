@@ -0,0 +1,22 @@
+CREATE SEQUENCE IF NOT EXISTS upload_session_seq 
+START WITH 101 
+INCREMENT BY 1 
+MINVALUE 101 
+MAXVALUE 10000000000 
+NO CYCLE;
+
+CREATE TABLE IF NOT EXISTS upload_session (
+  id BIGINT NOT NULL DEFAULT NEXTVAL('upload_session_seq'),
+  uuid VARCHAR(255) NOT NULL,
+  name VARCHAR(255) NOT NULL,
+  type VARCHAR(255) NOT NULL,
+  size BIGINT NOT NULL,
+  chunk_size BIGINT NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  expires_at TIMESTAMP NOT NULL,
+  user_id BIGINT NOT NULL,
+
+  CONSTRAINT upload_session_pk PRIMARY KEY (id),
+  CONSTRAINT upload_session_uk UNIQUE (uuid),
+  CONSTRAINT upload_session_fk FOREIGN KEY (user_id) REFERENCES app_user(id)
+);
@@ -0,0 +1 @@
+ALTER TABLE file ADD COLUMN IF NOT EXISTS checksum VARCHAR(64);
@@ -0,0 +1,19 @@
+CREATE SEQUENCE IF NOT EXISTS file_blob_seq 
+START WITH 101 
+INCREMENT BY 1 
+MINVALUE 101 
+MAXVALUE 10000000000 
+NO CYCLE;
+
+CREATE TABLE IF NOT EXISTS file_blob (
+  id BIGINT NOT NULL DEFAULT NEXTVAL('file_blob_seq'),
+  hash VARCHAR(64) NOT NULL,
+  location TEXT NOT NULL,
+  size BIGINT NOT NULL,
+  ref_count INT NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+
+  CONSTRAINT file_blob_pk PRIMARY KEY (id),
+  CONSTRAINT file_blob_uk UNIQUE (hash),
+  CONSTRAINT file_blob_ref_ck CHECK (ref_count >= 0)
+);
@@ -0,0 +1,23 @@
+CREATE SEQUENCE IF NOT EXISTS file_segment_seq 
+START WITH 101 
+INCREMENT BY 1 
+MINVALUE 101 
+MAXVALUE 10000000000 
+NO CYCLE;
+
+CREATE TABLE IF NOT EXISTS file_segment (
+  id BIGINT NOT NULL DEFAULT NEXTVAL('file_segment_seq'),
+  location TEXT NOT NULL,
+  size BIGINT NOT NULL,
+  live_bytes BIGINT NOT NULL,
+  sealed BOOLEAN NOT NULL DEFAULT FALSE,
+  created_at TIMESTAMP NOT NULL,
+
+  CONSTRAINT file_segment_pk PRIMARY KEY (id)
+);
+
+ALTER TABLE file ADD COLUMN IF NOT EXISTS segment_id BIGINT;
+ALTER TABLE file ADD COLUMN IF NOT EXISTS segment_offset BIGINT;
+ALTER TABLE file ADD CONSTRAINT file_segment_fk FOREIGN KEY (segment_id) REFERENCES file_segment(id);
+
+CREATE INDEX IF NOT EXISTS file_segment_idx ON file (segment_id);
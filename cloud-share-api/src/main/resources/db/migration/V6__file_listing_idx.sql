@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS file_user_uploaded_at_idx ON file (user_id, uploaded_at, id);
@@ -0,0 +1,7 @@
+ALTER SEQUENCE IF EXISTS user_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS token_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS file_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS payment_transaction_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS upload_session_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS file_blob_seq INCREMENT BY 50;
+ALTER SEQUENCE IF EXISTS file_segment_seq INCREMENT BY 50;
@@ -0,0 +1,6 @@
+ALTER TABLE app_user ADD COLUMN IF NOT EXISTS security_version INT NOT NULL DEFAULT 0;
+ALTER TABLE app_user ADD COLUMN IF NOT EXISTS security_version_changed_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS user_security_version_changed_idx
+  ON app_user (security_version_changed_at)
+  WHERE security_version_changed_at IS NOT NULL;
@@ -0,0 +1 @@
+ALTER TABLE upload_session ADD COLUMN IF NOT EXISTS completing_at TIMESTAMP;
@@ -33,6 +33,7 @@ import com.example.cloud_share_api.infrastructure.security.JwtProvider;
 import com.example.cloud_share_api.token.TokenService;
 import com.example.cloud_share_api.token.TokenType;
 import com.example.cloud_share_api.user.User;
+import com.example.cloud_share_api.user.UserCache;
 import com.example.cloud_share_api.user.UserRepository;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -42,6 +43,8 @@ public class AuthServiceTest {
   @Mock
   private UserRepository userRepository;
   @Mock
+  private UserCache userCache;
+  @Mock
   private PasswordEncoder passwordEncoder;
   @Mock
   private AuthenticationManager authenticationManager;
@@ -70,7 +73,7 @@ public class AuthServiceTest {
   @BeforeEach
   void setup() {
     user = createTestUser("user@test.in", "password");
-    authService = new AuthService(userRepository, passwordEncoder, authenticationManager, jwtProvider, tokenService, mailService);
+    authService = new AuthService(userRepository, userCache, passwordEncoder, authenticationManager, jwtProvider, tokenService, mailService);
     ReflectionTestUtils.setField(authService, "clientUrl", "http://localhost:4200");
   }
 
@@ -137,8 +140,8 @@ public class AuthServiceTest {
     final AuthRequest request = new AuthRequest("user@test.in", "password");
     when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
     when(authentication.getPrincipal()).thenReturn(user);
-    when(jwtProvider.generateToken(eq(request.email()))).thenReturn(accessToken);
-    when(jwtProvider.generateToken(eq(request.email()), eq(7*24*60*60))).thenReturn(refreshToken);
+    when(jwtProvider.generateToken(eq(user))).thenReturn(accessToken);
+    when(jwtProvider.generateToken(eq(user), eq(7*24*60*60))).thenReturn(refreshToken);
 
     final AuthResponse result = authService.authenticateUser(request);
 
@@ -146,9 +149,9 @@ public class AuthServiceTest {
     Assertions.assertThat(result.accessToken()).isEqualTo(accessToken);
     Assertions.assertThat(result.refreshToken()).isEqualTo(refreshToken);
     
-    verify(jwtProvider, times(1)).generateToken(eq(request.email()));
+    verify(jwtProvider, times(1)).generateToken(eq(user));
     verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
-    verify(jwtProvider, times(1)).generateToken(eq(request.email()), eq(7*24*60*60));
+    verify(jwtProvider, times(1)).generateToken(eq(user), eq(7*24*60*60));
   }
 
   @Test
@@ -178,8 +181,8 @@ public class AuthServiceTest {
 
     final String email = "user@test.in";
     when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
-    when(jwtProvider.generateToken(eq(email))).thenReturn(accessToken);
-    when(jwtProvider.generateToken(eq(email), eq(7*24*60*60))).thenReturn(refreshToken);
+    when(jwtProvider.generateToken(eq(user))).thenReturn(accessToken);
+    when(jwtProvider.generateToken(eq(user), eq(7*24*60*60))).thenReturn(refreshToken);
 
     final AuthResponse result = authService.verifyEmail(email, MOCK_TOKEN_STRING);
 
@@ -190,9 +193,10 @@ public class AuthServiceTest {
     
     verify(userRepository, times(1)).findByEmail(email);
     verify(userRepository, times(1)).save(any(User.class));
+    verify(userCache, times(1)).invalidate(email);
     verify(tokenService, times(1)).validateToken(eq(MOCK_TOKEN_STRING), eq(TokenType.EMAIL_VERIFICATION), eq(user));
-    verify(jwtProvider, times(1)).generateToken(eq(email));
-    verify(jwtProvider, times(1)).generateToken(eq(email), eq(7*24*60*60));
+    verify(jwtProvider, times(1)).generateToken(eq(user));
+    verify(jwtProvider, times(1)).generateToken(eq(user), eq(7*24*60*60));
   }
 
   @Test
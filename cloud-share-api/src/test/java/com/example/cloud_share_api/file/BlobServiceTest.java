@@ -0,0 +1,228 @@
+package com.example.cloud_share_api.file;
+
+import static com.example.cloud_share_api.TestUtils.createFile;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.cloud_share_api.infrastructure.storage.LocalStorageBackend;
+
+@ExtendWith(MockitoExtension.class)
+public class BlobServiceTest {
+  private static final String CHECKSUM = "6ae8a75555209fd6c44157c0aed8016e763ff435a19cf186f76863140143ff72";
+
+  @Mock
+  private BlobRepository blobRepository;
+
+  @Mock
+  private SegmentService segmentService;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @TempDir
+  private Path uploadDir;
+
+  private BlobService blobService;
+  private StorageLayout storageLayout;
+
+  @BeforeEach
+  void setup() {
+    storageLayout = new StorageLayout();
+    ReflectionTestUtils.setField(storageLayout, "uploadDir", uploadDir.toString());
+    ReflectionTestUtils.setField(storageLayout, "shardDepth", 2);
+
+    blobService = new BlobService(blobRepository, storageLayout, segmentService, new LocalStorageBackend(storageLayout), transactionManager);
+    blobService.init();
+    ReflectionTestUtils.setField(blobService, "deduplication", true);
+  }
+
+  @AfterEach
+  void purge() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void testCommit_NewContent_MovesIntoBlobStore() throws IOException {
+    Path tempFile = writeTempFile();
+
+    String location = blobService.commit(tempFile, "file.txt", CHECKSUM, 12L).location();
+
+    Assertions.assertThat(location).isEqualTo("blobs/6a/e8/" + CHECKSUM);
+    Assertions.assertThat(Files.readString(uploadDir.resolve(location))).isEqualTo("test content");
+    Assertions.assertThat(Files.exists(tempFile)).isFalse();
+    verify(blobRepository, times(1)).acquire(CHECKSUM, location, 12L);
+  }
+
+  @Test
+  void testCommit_SmallContent_PackedIntoSegment() throws IOException {
+    Path tempFile = writeTempFile();
+    StoredContent packed = new StoredContent("segments/segment.seg", new Segment(), 0L);
+    when(segmentService.accepts(12L)).thenReturn(true);
+    when(segmentService.append(tempFile, 12L)).thenReturn(packed);
+
+    StoredContent stored = blobService.commit(tempFile, "file.txt", CHECKSUM, 12L);
+
+    Assertions.assertThat(stored).isSameAs(packed);
+    verify(blobRepository, never()).acquire(CHECKSUM, storageLayout.blobKey(CHECKSUM), 12L);
+  }
+
+  @Test
+  void testCommit_SegmentAppendRolledBack_ReleasesLiveBytes() throws IOException {
+    TransactionSynchronizationManager.initSynchronization();
+    Path tempFile = writeTempFile();
+    StoredContent packed = new StoredContent("segments/segment.seg", new Segment(), 0L);
+    when(segmentService.accepts(12L)).thenReturn(true);
+    when(segmentService.append(tempFile, 12L)).thenReturn(packed);
+
+    blobService.commit(tempFile, "file.txt", CHECKSUM, 12L);
+    for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+
+    verify(segmentService, times(1)).release(packed.segment(), 12L);
+  }
+
+  @Test
+  void testCommit_KnownContent_DiscardsCopy() throws IOException {
+    blobService.commit(writeTempFile(), "first.txt", CHECKSUM, 12L);
+    Path tempFile = writeTempFile();
+
+    String location = blobService.commit(tempFile, "second.txt", CHECKSUM, 12L).location();
+
+    Assertions.assertThat(location).isEqualTo("blobs/6a/e8/" + CHECKSUM);
+    Assertions.assertThat(Files.exists(tempFile)).isFalse();
+    try (var stored = Files.list(uploadDir.resolve(location).getParent())) {
+      Assertions.assertThat(stored).hasSize(1);
+    }
+  }
+
+  @Test
+  void testCommit_ObjectRemovedBeforeAcquire_StoresAgain() throws IOException {
+    blobService.commit(writeTempFile(), "first.txt", CHECKSUM, 12L);
+    String key = storageLayout.blobKey(CHECKSUM);
+    when(blobRepository.acquire(CHECKSUM, key, 12L)).thenAnswer(invocation -> {
+      Files.delete(uploadDir.resolve(key));
+      return 1;
+    });
+    Path tempFile = writeTempFile();
+
+    String location = blobService.commit(tempFile, "second.txt", CHECKSUM, 12L).location();
+
+    Assertions.assertThat(Files.readString(uploadDir.resolve(location))).isEqualTo("test content");
+    Assertions.assertThat(Files.exists(tempFile)).isFalse();
+  }
+
+  @Test
+  void testCommit_RolledBack_ReleasesReference() throws IOException {
+    TransactionSynchronizationManager.initSynchronization();
+    String location = blobService.commit(writeTempFile(), "file.txt", CHECKSUM, 12L).location();
+    Blob blob = Blob.builder().hash(CHECKSUM).location(location).size(12L).refCount(1).build();
+    when(blobRepository.findByHashForUpdate(CHECKSUM)).thenReturn(Optional.of(blob));
+
+    for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+
+    verify(blobRepository, times(1)).delete(blob);
+    Assertions.assertThat(Files.exists(uploadDir.resolve(location))).isFalse();
+  }
+
+  @Test
+  void testCommit_Committed_KeepsReference() throws IOException {
+    TransactionSynchronizationManager.initSynchronization();
+    String location = blobService.commit(writeTempFile(), "file.txt", CHECKSUM, 12L).location();
+
+    for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    verify(blobRepository, never()).findByHashForUpdate(CHECKSUM);
+    Assertions.assertThat(Files.exists(uploadDir.resolve(location))).isTrue();
+  }
+
+  @Test
+  void testRelease_SharedBlob_KeepsFile() throws IOException {
+    Path location = uploadDir.resolve(blobService.commit(writeTempFile(), "file.txt", CHECKSUM, 12L).location());
+    Blob blob = createBlob(location, 2);
+    File file = createFileAt(location);
+    when(blobRepository.findByHashForUpdate(CHECKSUM)).thenReturn(Optional.of(blob));
+
+    blobService.release(file);
+
+    Assertions.assertThat(blob.getRefCount()).isEqualTo(1);
+    Assertions.assertThat(Files.exists(location)).isTrue();
+    verify(blobRepository, never()).delete(blob);
+  }
+
+  @Test
+  void testRelease_LastReference_DeletesFile() throws IOException {
+    Path location = uploadDir.resolve(blobService.commit(writeTempFile(), "file.txt", CHECKSUM, 12L).location());
+    Blob blob = createBlob(location, 1);
+    File file = createFileAt(location);
+    when(blobRepository.findByHashForUpdate(CHECKSUM)).thenReturn(Optional.of(blob));
+
+    blobService.release(file);
+
+    Assertions.assertThat(Files.exists(location)).isFalse();
+    verify(blobRepository, times(1)).delete(blob);
+  }
+
+  @Test
+  void testRelease_StandaloneFile_DeletesFile() throws IOException {
+    Path location = uploadDir.resolve("standalone.txt");
+    Files.writeString(location, "test content");
+    File file = createFileAt(location);
+    when(blobRepository.findByHashForUpdate(CHECKSUM)).thenReturn(Optional.empty());
+
+    blobService.release(file);
+
+    Assertions.assertThat(Files.exists(location)).isFalse();
+  }
+
+  private Path writeTempFile() throws IOException {
+    Path tempFile = blobService.createTempFile();
+    Files.writeString(tempFile, "test content");
+    return tempFile;
+  }
+
+  private Blob createBlob(Path location, int refCount) {
+    return Blob.builder()
+      .hash(CHECKSUM)
+      .location(location.toString())
+      .size(12L)
+      .refCount(refCount)
+      .createdAt(Instant.now())
+      .build();
+  }
+
+  private File createFileAt(Path location) {
+    File file = createFile(UUID.randomUUID().toString());
+    file.setLocation(location.toString());
+    file.setChecksum(CHECKSUM);
+    return file;
+  }
+}
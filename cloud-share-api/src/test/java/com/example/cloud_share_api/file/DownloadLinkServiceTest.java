@@ -0,0 +1,66 @@
+package com.example.cloud_share_api.file;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.cloud_share_api.infrastructure.exceptions.ExpiredTokenException;
+import com.example.cloud_share_api.infrastructure.exceptions.InvalidTokenException;
+
+public class DownloadLinkServiceTest {
+  private DownloadLinkService downloadLinkService;
+  private DownloadTarget target;
+
+  @BeforeEach
+  void setup() {
+    downloadLinkService = new DownloadLinkService();
+    ReflectionTestUtils.setField(downloadLinkService, "signingKey", "81143a9407f2fdc4625ecd26eaeac64cd9512b3f57dfc513179e8f237e29e18d");
+    ReflectionTestUtils.setField(downloadLinkService, "linkExpiration", 300L);
+    downloadLinkService.init();
+
+    target = new DownloadTarget(
+      UUID.randomUUID().toString(),
+      "testfile.txt",
+      "text/plain",
+      "segments/segment.seg",
+      12L,
+      6L,
+      "6ae8a75555209fd6c44157c0aed8016e763ff435a19cf186f76863140143ff72",
+      false,
+      Instant.now().truncatedTo(ChronoUnit.MILLIS)
+    );
+  }
+
+  @Test
+  void testVerify_SignedLink_ReturnsTargetWithoutLookup() {
+    String token = downloadLinkService.sign(target, downloadLinkService.expiresAt());
+
+    Assertions.assertThat(downloadLinkService.verify(token)).isEqualTo(target);
+  }
+
+  @Test
+  void testVerify_TamperedLink_ShouldThrowInvalidTokenException() {
+    String token = downloadLinkService.sign(target, downloadLinkService.expiresAt());
+    String[] parts = token.split("\\.");
+    String forged = downloadLinkService.sign(
+      new DownloadTarget(target.uuid(), target.name(), target.type(), "other/file.txt", target.size(), null, target.checksum(), false, target.uploadedAt()),
+      downloadLinkService.expiresAt()
+    ).split("\\.")[1];
+
+    Assertions.assertThatThrownBy(() -> downloadLinkService.verify(parts[0] + "." + forged + "." + parts[2]))
+      .isInstanceOf(InvalidTokenException.class);
+  }
+
+  @Test
+  void testVerify_ExpiredLink_ShouldThrowExpiredTokenException() {
+    String token = downloadLinkService.sign(target, Instant.now().minusSeconds(60));
+
+    Assertions.assertThatThrownBy(() -> downloadLinkService.verify(token))
+      .isInstanceOf(ExpiredTokenException.class);
+  }
+}
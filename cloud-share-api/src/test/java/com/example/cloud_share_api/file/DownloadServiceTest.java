@@ -0,0 +1,308 @@
+package com.example.cloud_share_api.file;
+
+import static com.example.cloud_share_api.TestUtils.createFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.example.cloud_share_api.infrastructure.storage.LocalStorageBackend;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class DownloadServiceTest {
+  @TempDir
+  private Path uploadDir;
+
+  private DownloadService downloadService;
+
+  private File file;
+
+  @BeforeEach
+  void setup() throws IOException {
+    StorageLayout storageLayout = new StorageLayout();
+    ReflectionTestUtils.setField(storageLayout, "uploadDir", uploadDir.toString());
+    ReflectionTestUtils.setField(storageLayout, "shardDepth", 2);
+
+    LocalStorageBackend storageBackend = new LocalStorageBackend(storageLayout);
+    HotFileCache hotFileCache = new HotFileCache(storageBackend, new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(hotFileCache, "enabled", true);
+    ReflectionTestUtils.setField(hotFileCache, "maxSize", DataSize.ofMegabytes(1));
+    ReflectionTestUtils.setField(hotFileCache, "maxFileSize", DataSize.ofKilobytes(64));
+    ReflectionTestUtils.setField(hotFileCache, "ttl", Duration.ofMinutes(1));
+    hotFileCache.init();
+
+    downloadService = new DownloadService(storageBackend, storageLayout, hotFileCache);
+    ReflectionTestUtils.setField(downloadService, "sendfileMinSize", DataSize.ofBytes(4));
+    ReflectionTestUtils.setField(downloadService, "publicMaxAge", 3600L);
+    ReflectionTestUtils.setField(downloadService, "offload", DownloadOffload.NONE);
+    ReflectionTestUtils.setField(downloadService, "offloadPrefix", "/internal/uploads/");
+
+    Path location = uploadDir.resolve("testfile.txt");
+    Files.writeString(location, "test content");
+
+    file = createFile(UUID.randomUUID().toString());
+    file.setLocation(location.toString());
+    file.setChecksum("6ae8a75555209fd6c44157c0aed8016e763ff435a19cf186f76863140143ff72");
+  }
+
+  @Test
+  void testWriteFile_StreamsBody() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/download/" + file.getUuid());
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeFile(DownloadTarget.of(file), request, response);
+
+    Assertions.assertThat(response.getStatus()).isEqualTo(200);
+    Assertions.assertThat(response.getContentAsString()).isEqualTo("test content");
+    Assertions.assertThat(response.getContentLengthLong()).isEqualTo(12L);
+    Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).isEqualTo("attachment; filename=\"testfile.txt\"");
+  }
+
+  @Test
+  void testWriteFile_UsesSendfileWhenSupported() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/download/" + file.getUuid());
+    request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeFile(DownloadTarget.of(file), request, response);
+
+    Assertions.assertThat(response.getContentAsByteArray()).isEmpty();
+    Assertions.assertThat(response.getContentLengthLong()).isEqualTo(12L);
+    Assertions.assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(Path.of(file.getLocation()).toRealPath().toString());
+    Assertions.assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(0L);
+    Assertions.assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(12L);
+  }
+
+  @Test
+  void testWriteFile_PackedInSegment_ServesOnlyItsRegion() throws IOException {
+    Path segment = uploadDir.resolve("segment.seg");
+    Files.writeString(segment, "headertest contenttrailer");
+    file.setLocation(segment.toString());
+    file.setSegmentOffset(6L);
+    file.setSize(12L);
+
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/download/" + file.getUuid());
+    request.addHeader(HttpHeaders.RANGE, "bytes=5-11");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeFile(DownloadTarget.of(file), request, response);
+
+    Assertions.assertThat(response.getStatus()).isEqualTo(206);
+    Assertions.assertThat(response.getContentAsString()).isEqualTo("content");
+    Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 5-11/12");
+  }
+
+  @Test
+  void testWriteFile_AccelRedirectOffload_DelegatesToProxy() throws IOException {
+    ReflectionTestUtils.setField(downloadService, "offload", DownloadOffload.X_ACCEL_REDIRECT);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/download/" + file.getUuid());
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeFile(DownloadTarget.of(file), request, response);
+
+    Assertions.assertThat(response.getHeader("X-Accel-Redirect")).isEqualTo("/internal/uploads/testfile.txt");
+    Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).isEqualTo("attachment; filename=\"testfile.txt\"");
+    Assertions.assertThat(response.getContentAsByteArray()).isEmpty();
+  }
+
+  @Test
+  void testWriteFile_SendfileOffload_PackedFileIsStreamed() throws IOException {
+    ReflectionTestUtils.setField(downloadService, "offload", DownloadOffload.X_SENDFILE);
+    Path segment = uploadDir.resolve("segment.seg");
+    Files.writeString(segment, "headertest content");
+    file.setLocation(segment.toString());
+    file.setSegmentOffset(6L);
+    file.setSize(12L);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/download/" + file.getUuid());
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeFile(DownloadTarget.of(file), request, response);
+
+    Assertions.assertThat(response.getHeader("X-Sendfile")).isNull();
+    Assertions.assertThat(response.getContentAsString()).isEqualTo("test content");
+  }
+
+  @Test
+  void testWriteFile_SingleRange() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/download/" + file.getUuid());
+    request.addHeader(HttpHeaders.RANGE, "bytes=5-11");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeFile(DownloadTarget.of(file), request, response);
+
+    Assertions.assertThat(response.getStatus()).isEqualTo(206);
+    Assertions.assertThat(response.getContentAsString()).isEqualTo("content");
+    Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 5-11/12");
+    Assertions.assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+  }
+
+  @Test
+  void testWriteFile_MultipleRanges() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/download/" + file.getUuid());
+    request.addHeader(HttpHeaders.RANGE, "bytes=0-3,-7");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeFile(DownloadTarget.of(file), request, response);
+
+    String body = response.getContentAsString();
+    Assertions.assertThat(response.getStatus()).isEqualTo(206);
+    Assertions.assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+    Assertions.assertThat(response.getContentLengthLong()).isEqualTo(response.getContentAsByteArray().length);
+    Assertions.assertThat(body).contains("Content-Range: bytes 0-3/12\r\n\r\ntest");
+    Assertions.assertThat(body).contains("Content-Range: bytes 5-11/12\r\n\r\ncontent");
+  }
+
+  @Test
+  void testWriteFile_UnsatisfiableRange() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/download/" + file.getUuid());
+    request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeFile(DownloadTarget.of(file), request, response);
+
+    Assertions.assertThat(response.getStatus()).isEqualTo(416);
+    Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */12");
+  }
+
+  @Test
+  void testWriteFile_MalformedRange_IgnoredAndReturnsFullContent() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/download/" + file.getUuid());
+    request.addHeader(HttpHeaders.RANGE, "bytes=11-5");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeFile(DownloadTarget.of(file), request, response);
+
+    Assertions.assertThat(response.getStatus()).isEqualTo(200);
+    Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+    Assertions.assertThat(response.getContentAsString()).isEqualTo("test content");
+  }
+
+  @Test
+  void testWriteFile_IfRangeMismatch_ReturnsFullContent() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/download/" + file.getUuid());
+    request.addHeader(HttpHeaders.RANGE, "bytes=5-11");
+    request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeFile(DownloadTarget.of(file), request, response);
+
+    Assertions.assertThat(response.getStatus()).isEqualTo(200);
+    Assertions.assertThat(response.getContentAsString()).isEqualTo("test content");
+  }
+
+  @Test
+  void testWriteFile_IfRangeMatch_ReturnsPartialContent() throws IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/download/" + file.getUuid());
+    request.addHeader(HttpHeaders.RANGE, "bytes=5-11");
+    request.addHeader(HttpHeaders.IF_RANGE, "\"" + file.getUuid() + "\"");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeFile(DownloadTarget.of(file), request, response);
+
+    Assertions.assertThat(response.getStatus()).isEqualTo(206);
+    Assertions.assertThat(response.getContentAsString()).isEqualTo("content");
+  }
+
+  @Test
+  void testWriteFile_IfNoneMatch_ReturnsNotModified() throws IOException {
+    file.setLocation(uploadDir.resolve("missing.txt").toString());
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/download/" + file.getUuid());
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + file.getUuid() + "\"");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeFile(DownloadTarget.of(file), request, response);
+
+    Assertions.assertThat(response.getStatus()).isEqualTo(304);
+    Assertions.assertThat(response.getContentAsByteArray()).isEmpty();
+    Assertions.assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + file.getUuid() + "\"");
+  }
+
+  @Test
+  void testWriteFile_PublicFile_CacheControl() throws IOException {
+    file.setPublic(true);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/public/download/" + file.getUuid());
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeFile(DownloadTarget.of(file), request, response);
+
+    Assertions.assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=3600, public");
+    Assertions.assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"" + file.getUuid() + "\"");
+    Assertions.assertThat(response.getHeader(HttpHeaders.LAST_MODIFIED)).isNotNull();
+  }
+
+  @Test
+  void testWriteFile_PublicFile_ServedFromCache() throws IOException {
+    file.setPublic(true);
+    DownloadTarget target = DownloadTarget.of(file);
+    downloadService.writeFile(target, new MockHttpServletRequest(), new MockHttpServletResponse());
+    Files.delete(Path.of(file.getLocation()));
+
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/public/download/" + file.getUuid());
+    request.addHeader(HttpHeaders.RANGE, "bytes=5-11");
+    request.setAttribute("org.apache.tomcat.sendfile.support", true);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeFile(target, request, response);
+
+    Assertions.assertThat(response.getStatus()).isEqualTo(206);
+    Assertions.assertThat(response.getContentAsString()).isEqualTo("content");
+    Assertions.assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isNull();
+  }
+
+  @Test
+  void testWriteFile_SignedLink_DoesNotFillCache() throws IOException {
+    file.setPublic(true);
+    DownloadTarget target = DownloadTarget.of(file);
+    downloadService.writeFile(target, new MockHttpServletRequest(), new MockHttpServletResponse(), false);
+    Files.delete(Path.of(file.getLocation()));
+
+    Assertions.assertThatThrownBy(() -> downloadService.writeFile(target, new MockHttpServletRequest(), new MockHttpServletResponse()))
+      .isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void testWriteArchive_SkipsCompressionForCompressedTypesAndDeduplicatesNames() throws IOException {
+    String png = "png content ".repeat(100);
+    Files.writeString(uploadDir.resolve("image.png"), png);
+    File image = createFile(UUID.randomUUID().toString());
+    image.setName("testfile.txt");
+    image.setType("image/png");
+    image.setLocation("image.png");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    downloadService.writeArchive(List.of(DownloadTarget.of(file), DownloadTarget.of(image)), "cloud-share.zip", response);
+
+    Assertions.assertThat(response.getContentType()).isEqualTo("application/zip");
+    try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+      ZipEntry first = zip.getNextEntry();
+      Assertions.assertThat(first.getName()).isEqualTo("testfile.txt");
+      Assertions.assertThat(first.getMethod()).isEqualTo(ZipEntry.DEFLATED);
+      Assertions.assertThat(new String(zip.readAllBytes())).isEqualTo("test content");
+
+      ZipEntry second = zip.getNextEntry();
+      Assertions.assertThat(second.getName()).isEqualTo("testfile (1).txt");
+      Assertions.assertThat(second.getMethod()).isEqualTo(ZipEntry.DEFLATED);
+      Assertions.assertThat(new String(zip.readAllBytes())).isEqualTo(png);
+      Assertions.assertThat(second.getCompressedSize()).isGreaterThanOrEqualTo(png.length());
+
+      Assertions.assertThat(zip.getNextEntry()).isNull();
+    }
+  }
+}
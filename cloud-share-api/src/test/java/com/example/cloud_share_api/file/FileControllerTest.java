@@ -3,12 +3,22 @@ package com.example.cloud_share_api.file;
 import static com.example.cloud_share_api.TestUtils.createTestUser;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import org.assertj.core.api.Assertions;
@@ -31,6 +41,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.FileSystemUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -43,6 +54,7 @@ import com.example.cloud_share_api.auth.AuthResponse;
 import com.example.cloud_share_api.infrastructure.handler.ErrorResponse;
 import com.example.cloud_share_api.user.User;
 import com.example.cloud_share_api.user.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
 
 @Testcontainers
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
@@ -64,6 +76,9 @@ class FileControllerTest {
   @Autowired
   private TestRestTemplate restTemplate;
 
+  @Autowired
+  private HikariDataSource dataSource;
+
   private final String BASE_URL = "/api/v1/uploads";
   private final String AUTH_URL = "/api/v1/auth";
 
@@ -93,18 +108,7 @@ class FileControllerTest {
     fileRepository.deleteAll();
     userRepository.deleteAll();
 
-    if (Files.exists(uploadPath)) {
-      try (Stream<Path> files = Files.list(uploadPath)) {
-        files.forEach(file -> {
-          try {
-            Files.delete(file);
-          } catch (IOException e) {
-              throw new RuntimeException("Failed to delete test file", e);
-          }
-        });
-      }
-      Files.delete(uploadPath);
-    }
+    FileSystemUtils.deleteRecursively(uploadPath);
   }
 
   @Test
@@ -135,8 +139,8 @@ class FileControllerTest {
     Assertions.assertThat(response.getBody()).hasSize(1);
     Assertions.assertThat(response.getBody().get(0).name()).isEqualTo("test_file.txt");
     
-    Path uploadedFilePath = findFileInUploadsDir(response.getBody().get(0).uuid());
-    Assertions.assertThat(Files.exists(uploadedFilePath)).isTrue();
+    File uploadedFile = fileRepository.findByUuid(response.getBody().get(0).uuid()).orElseThrow();
+    Assertions.assertThat(Files.exists(uploadPath.resolve(uploadedFile.getLocation()))).isTrue();
     
     User updatedUser = userRepository.findById(user.getId()).orElseThrow();
     Assertions.assertThat(updatedUser.getCredit()).isEqualTo(4);
@@ -319,6 +323,71 @@ class FileControllerTest {
     Assertions.assertThat(response.getHeaders().getContentLength()).isEqualTo(12L);
   }
 
+  @Test
+  void testDownloadFileById_SlowClients_DoNotHoldDatabaseConnections() throws Exception {
+    File uploadedFile = uploadTestFile("large.bin", user, 8 * 1024 * 1024);
+    int clients = dataSource.getMaximumPoolSize() * 2;
+
+    ExecutorService executor = Executors.newFixedThreadPool(clients);
+    CountDownLatch streaming = new CountDownLatch(clients);
+    CountDownLatch resume = new CountDownLatch(1);
+    List<Future<Long>> downloads = new ArrayList<>();
+
+    try {
+      for (int i = 0; i < clients; i++) {
+        downloads.add(executor.submit(() -> restTemplate.execute(
+          BASE_URL + "/download/" + uploadedFile.getUuid(),
+          HttpMethod.GET,
+          request -> request.getHeaders().setBearerAuth(authToken),
+          response -> {
+            InputStream body = response.getBody();
+            long read = body.readNBytes(1024).length;
+            streaming.countDown();
+            try {
+              resume.await();
+            } catch (InterruptedException e) {
+              throw new InterruptedIOException();
+            }
+            return read + body.transferTo(OutputStream.nullOutputStream());
+          }
+        )));
+      }
+
+      Assertions.assertThat(streaming.await(30, TimeUnit.SECONDS)).isTrue();
+      Assertions.assertThat(dataSource.getHikariPoolMXBean().getActiveConnections()).isZero();
+    } finally {
+      resume.countDown();
+      executor.shutdown();
+    }
+
+    for (Future<Long> download : downloads) {
+      Assertions.assertThat(download.get(30, TimeUnit.SECONDS)).isEqualTo(uploadedFile.getSize());
+    }
+  }
+
+  @Test
+  void testDownloadSignedFile_Success() {
+    File uploadedFile = uploadTestFile("download_me.txt", user);
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setBearerAuth(authToken);
+
+    ResponseEntity<DownloadLink> link = restTemplate.exchange(
+      BASE_URL + "/" + uploadedFile.getUuid() + "/link",
+      HttpMethod.GET,
+      new HttpEntity<>(null, headers),
+      DownloadLink.class
+    );
+
+    Assertions.assertThat(link.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+    ResponseEntity<String> response = restTemplate.getForEntity(link.getBody().url(), String.class);
+
+    Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    Assertions.assertThat(response.getBody()).isEqualTo("test content");
+    Assertions.assertThat(response.getHeaders().getContentDisposition().getFilename()).isEqualTo("download_me.txt");
+  }
+
   @Test
   void testDownloadPublicFileById_PrivateFile_ShouldReturnForbidden() {
     File privateFile = uploadTestFile("private_file.txt", user);
@@ -447,11 +516,29 @@ class FileControllerTest {
       throw new RuntimeException("Failed to write test file", e);
     }
 
+    return saveTestFile(randomUuid, fileName, location, 12L, fileOwner);
+  }
+
+  private File uploadTestFile(String fileName, User fileOwner, int size) {
+    String randomUuid = UUID.randomUUID().toString();
+    String location = Path.of(uploadPath.toString(), randomUuid + ".bin").toString();
+    byte[] content = new byte[size];
+    new Random().nextBytes(content);
+    try {
+      Files.write(Path.of(location), content);
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to write test file", e);
+    }
+
+    return saveTestFile(randomUuid, fileName, location, (long) size, fileOwner);
+  }
+
+  private File saveTestFile(String randomUuid, String fileName, String location, Long size, User fileOwner) {
     File file = File.builder()
       .uuid(randomUuid)
       .name(fileName)
       .type("text/plain")
-      .size(12L)
+      .size(size)
       .isPublic(false)
       .user(fileOwner)
       .uploadedAt(Instant.now())
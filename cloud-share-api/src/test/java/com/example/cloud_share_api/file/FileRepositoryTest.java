@@ -3,6 +3,8 @@ package com.example.cloud_share_api.file;
 import static com.example.cloud_share_api.TestUtils.createFile;
 import static com.example.cloud_share_api.TestUtils.createTestUser;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -93,4 +95,43 @@ public class FileRepositoryTest {
     Assertions.assertThat(result).isNotNull();
     Assertions.assertThat(result).isEmpty();
   }
+
+  @Test
+  void shouldPageFilesByKeyset_whenCursorGiven() {
+    Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    for (int i = 0; i < 3; i++) {
+      File file = createFile(UUID.randomUUID().toString());
+      file.setUser(user);
+      file.setType("image/png");
+      file.setUploadedAt(now.plusSeconds(i));
+      fileRepository.save(file);
+    }
+
+    FileQuery query = new FileQuery("image", null, null, null, null, null, null, null, null);
+    final List<File> first = fileRepository.findPage(user.getId(), query, null, 2);
+    final List<File> second = fileRepository.findPage(user.getId(), query, FileCursor.of(first.get(1), query.sort()), 2);
+
+    Assertions.assertThat(first).extracting(File::getUploadedAt).containsExactly(now.plusSeconds(2), now.plusSeconds(1));
+    Assertions.assertThat(second).extracting(File::getUploadedAt).containsExactly(now);
+  }
+
+  @Test
+  void shouldProjectOwnedFile_whenOwnerMatches() {
+    final Optional<FileDto> owned = fileRepository.findDtoByUuidAndUserId(fileUUID, user.getId());
+    final Optional<DownloadTarget> foreign = fileRepository.findTargetByUuidAndUserId(fileUUID, user.getId() + 1);
+
+    Assertions.assertThat(owned).map(FileDto::uuid).contains(fileUUID);
+    Assertions.assertThat(foreign).isEmpty();
+  }
+
+  @Test
+  void shouldProjectPublicFileOnly_whenFileIsPublic() {
+    Assertions.assertThat(fileRepository.findPublicTargetByUuid(fileUUID)).isEmpty();
+
+    File file = fileRepository.findByUuid(fileUUID).orElseThrow();
+    file.setPublic(true);
+    fileRepository.save(file);
+
+    Assertions.assertThat(fileRepository.findPublicTargetByUuid(fileUUID)).map(DownloadTarget::isPublic).contains(true);
+  }
 }
@@ -3,8 +3,11 @@ package com.example.cloud_share_api.file;
 import static com.example.cloud_share_api.TestUtils.createFile;
 import static com.example.cloud_share_api.TestUtils.createTestUser;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -18,6 +21,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.assertj.core.api.Assertions;
@@ -25,16 +29,26 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.cloud_share_api.infrastructure.storage.LocalStorageBackend;
+
 import com.example.cloud_share_api.infrastructure.exceptions.AccessDeniedException;
 import com.example.cloud_share_api.infrastructure.exceptions.InsufficentCreditException;
+import com.example.cloud_share_api.user.CreditReservation;
+import com.example.cloud_share_api.user.CreditService;
 import com.example.cloud_share_api.user.User;
 import com.example.cloud_share_api.user.UserRepository;
 
@@ -43,15 +57,38 @@ import jakarta.persistence.EntityNotFoundException;
 @ExtendWith(MockitoExtension.class)
 public class FileServiceTest {
   @Mock
-  private UserRepository userRepository;
+  private CreditService creditService;
   
+  @Mock
+  private UserRepository userRepository;
+
   @Mock
   private FileRepository fileRepository;
 
+  @Mock
+  private BlobRepository blobRepository;
+
+  @Mock
+  private SegmentService segmentService;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private ThumbnailService thumbnailService;
+
+  @Mock
+  private HotFileCache hotFileCache;
+
   @Mock
   private Authentication authentication;
   
   private FileService fileService;
+  private BlobService blobService;
+  private StorageLayout storageLayout;
 
   private User user;
   private File file;
@@ -65,8 +102,19 @@ public class FileServiceTest {
     file = createFile(fileUuid);
     file.setUser(user);
 
-    fileService = new FileService(userRepository, fileRepository);
-    ReflectionTestUtils.setField(fileService, "uploadDir", "test-uploads");
+    storageLayout = new StorageLayout();
+    ReflectionTestUtils.setField(storageLayout, "uploadDir", "test-uploads");
+    ReflectionTestUtils.setField(storageLayout, "shardDepth", 2);
+
+    blobService = new BlobService(blobRepository, storageLayout, segmentService, new LocalStorageBackend(storageLayout), transactionManager);
+    blobService.init();
+    ReflectionTestUtils.setField(blobService, "deduplication", false);
+
+    fileService = new FileService(creditService, userRepository, fileRepository, blobService, hotFileCache, thumbnailService, eventPublisher, transactionManager);
+    fileService.init();
+    ReflectionTestUtils.setField(fileService, "maxFileSize", DataSize.ofMegabytes(1));
+    ReflectionTestUtils.setField(fileService, "defaultPageSize", 50);
+    ReflectionTestUtils.setField(fileService, "maxPageSize", 200);
   }
 
   @AfterEach
@@ -75,6 +123,7 @@ public class FileServiceTest {
     fileUuid = null;
     file = null;
     fileService = null;
+    blobService = null;
   }
 
   @Test
@@ -95,15 +144,15 @@ public class FileServiceTest {
 
       when(authentication.getPrincipal()).thenReturn(user);
       when(fileRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
-      when(userRepository.save(any(User.class))).thenReturn(user);
+      CreditReservation reservation = mock(CreditReservation.class);
+      when(creditService.reserve(user, 1)).thenReturn(reservation);
 
       List<FileDto> result = fileService.uploadFile(fileList, authentication);
 
       Assertions.assertThat(result).isNotNull().hasSize(1);
       Assertions.assertThat(result.get(0).name()).isEqualTo("test.txt");
-      Assertions.assertThat(user.getCredit()).isEqualTo(4);
 
-      verify(userRepository, times(1)).save(user);
+      verify(reservation, times(1)).release(0);
       verify(fileRepository, times(1)).saveAll(anyList());
     }
   }
@@ -115,30 +164,181 @@ public class FileServiceTest {
     List<MultipartFile> fileList = List.of(mockFile);
 
     when(authentication.getPrincipal()).thenReturn(user);
+    doThrow(new InsufficentCreditException()).when(creditService).reserve(user, 1);
 
     Assertions.assertThatThrownBy(() -> fileService.uploadFile(fileList, authentication))
       .isInstanceOf(InsufficentCreditException.class);
    
-    verify(userRepository, never()).save(any(User.class));
     verify(fileRepository, never()).saveAll(anyList());
   }
 
+  @Test
+  void testUploadFile_SaveFails_DiscardsContentAndRefunds(@TempDir Path tempDir) throws IOException {
+    ReflectionTestUtils.setField(storageLayout, "uploadDir", tempDir.toString());
+    List<MultipartFile> fileList = List.of(new MockMultipartFile("file", "test.txt", "text/plain", "some content".getBytes()));
+    CreditReservation reservation = mock(CreditReservation.class);
+
+    when(authentication.getPrincipal()).thenReturn(user);
+    when(creditService.reserve(user, 1)).thenReturn(reservation);
+    doThrow(new IllegalStateException("database unavailable")).when(fileRepository).saveAll(anyList());
+
+    Assertions.assertThatThrownBy(() -> fileService.uploadFile(fileList, authentication))
+      .isInstanceOf(IllegalStateException.class);
+
+    try (var stored = Files.walk(tempDir)) {
+      Assertions.assertThat(stored.filter(Files::isRegularFile)).isEmpty();
+    }
+    verify(reservation, times(1)).releaseAll();
+  }
+
+  @Test
+  void testStreamFileUpload_Success(@TempDir Path tempDir) throws IOException {
+    ReflectionTestUtils.setField(storageLayout, "uploadDir", tempDir.toString());
+    MockHttpServletRequest request = createMultipartRequest("test.txt", "some content");
+
+    when(authentication.getPrincipal()).thenReturn(user);
+    when(fileRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+    List<FileDto> result = fileService.streamFileUpload(request, authentication);
+
+    Assertions.assertThat(result).isNotNull().hasSize(1);
+    Assertions.assertThat(result.get(0).name()).isEqualTo("test.txt");
+    Assertions.assertThat(result.get(0).size()).isEqualTo(12L);
+    Assertions.assertThat(Files.readString(storageLayout.filePath(result.get(0).uuid() + ".txt"))).isEqualTo("some content");
+
+    verify(creditService, times(1)).reserve(user, 1);
+    verify(fileRepository, times(1)).saveAll(anyList());
+  }
+
+  @Test
+  void testStreamFileUpload_InsufficentCredit(@TempDir Path tempDir) throws IOException {
+    ReflectionTestUtils.setField(storageLayout, "uploadDir", tempDir.toString());
+    user.setCredit(0);
+    MockHttpServletRequest request = createMultipartRequest("test.txt", "some content");
+
+    when(authentication.getPrincipal()).thenReturn(user);
+    doThrow(new InsufficentCreditException()).when(creditService).reserve(user, 1);
+
+    Assertions.assertThatThrownBy(() -> fileService.streamFileUpload(request, authentication))
+      .isInstanceOf(InsufficentCreditException.class);
+
+    try (var stored = Files.walk(tempDir)) {
+      Assertions.assertThat(stored.filter(Files::isRegularFile)).isEmpty();
+    }
+    verify(fileRepository, never()).saveAll(anyList());
+  }
+
+  @Test
+  void testStreamFileUpload_SaveFails_DiscardsContentAndRefunds(@TempDir Path tempDir) throws IOException {
+    ReflectionTestUtils.setField(storageLayout, "uploadDir", tempDir.toString());
+    MockHttpServletRequest request = createMultipartRequest("test.txt", "some content");
+    CreditReservation reservation = mock(CreditReservation.class);
+
+    when(authentication.getPrincipal()).thenReturn(user);
+    when(creditService.reserve(user, 1)).thenReturn(reservation);
+    doThrow(new IllegalStateException("database unavailable")).when(fileRepository).saveAll(anyList());
+
+    Assertions.assertThatThrownBy(() -> fileService.streamFileUpload(request, authentication))
+      .isInstanceOf(IllegalStateException.class);
+
+    try (var stored = Files.walk(tempDir)) {
+      Assertions.assertThat(stored.filter(Files::isRegularFile)).isEmpty();
+    }
+    verify(reservation, times(1)).releaseAll();
+  }
+
+  @Test
+  void testUploadByHash_KnownContent(@TempDir Path tempDir) throws IOException {
+    ReflectionTestUtils.setField(blobService, "deduplication", true);
+    ReflectionTestUtils.setField(fileService, "hashUploadEnabled", true);
+    Path location = tempDir.resolve("blob");
+    Files.writeString(location, "some content");
+    String checksum = "290f493c44f5d63d06b374d0a5abd292fae38b92cab2fae5efefe1b0e9347f56";
+    Blob blob = Blob.builder().hash(checksum).location(location.toString()).size(12L).refCount(1).build();
+
+    when(authentication.getPrincipal()).thenReturn(user);
+    when(blobRepository.findByHash(checksum)).thenReturn(Optional.of(blob));
+    when(creditService.reserve(user, 1)).thenReturn(mock(CreditReservation.class));
+
+    Optional<FileDto> result = fileService.uploadByHash(new HashUploadRequest("test.txt", "text/plain", 12L, checksum.toUpperCase()), authentication);
+
+    Assertions.assertThat(result).isPresent();
+    Assertions.assertThat(result.get().checksum()).isEqualTo(checksum);
+    verify(blobRepository, times(1)).acquire(checksum, location.toString(), 12L);
+    verify(fileRepository, times(1)).save(any(File.class));
+  }
+
+  @Test
+  void testUploadByHash_UnknownContent() {
+    ReflectionTestUtils.setField(blobService, "deduplication", true);
+    ReflectionTestUtils.setField(fileService, "hashUploadEnabled", true);
+    String checksum = "290f493c44f5d63d06b374d0a5abd292fae38b92cab2fae5efefe1b0e9347f56";
+
+    when(authentication.getPrincipal()).thenReturn(user);
+    when(blobRepository.findByHash(checksum)).thenReturn(Optional.empty());
+    CreditReservation reservation = mock(CreditReservation.class);
+    when(creditService.reserve(user, 1)).thenReturn(reservation);
+
+    Optional<FileDto> result = fileService.uploadByHash(new HashUploadRequest("test.txt", "text/plain", 12L, checksum), authentication);
+
+    Assertions.assertThat(result).isEmpty();
+    verify(reservation, times(1)).releaseAll();
+    verify(fileRepository, never()).save(any(File.class));
+  }
+
+  @Test
+  void testUploadByHash_Disabled() {
+    when(authentication.getPrincipal()).thenReturn(user);
+
+    Optional<FileDto> result = fileService.uploadByHash(new HashUploadRequest("test.txt", "text/plain", 12L, "290f493c44f5d63d06b374d0a5abd292fae38b92cab2fae5efefe1b0e9347f56"), authentication);
+
+    Assertions.assertThat(result).isEmpty();
+    verify(creditService, never()).reserve(any(), anyInt());
+    verify(blobRepository, never()).findByHash(any());
+  }
+
   @Test
   void testGetCurrentUserFiles_Success() {
     when(authentication.getPrincipal()).thenReturn(user);
-    when(fileRepository.findByUser(user)).thenReturn(List.of(file));
+    FileQuery query = new FileQuery(null, null, null, null, null, null, null, null, null);
+    when(fileRepository.findPage(user.getId(), query, null, 51)).thenReturn(List.of(file));
 
-    List<FileDto> result = fileService.getCurrentUserFiles(authentication);
+    FilePage result = fileService.getCurrentUserFiles(query, authentication);
 
-    Assertions.assertThat(result).isNotNull();
-    Assertions.assertThat(result).hasSize(1);
-    Assertions.assertThat(result.get(0).name()).isEqualTo("testfile.txt");
+    Assertions.assertThat(result.files()).hasSize(1);
+    Assertions.assertThat(result.files().get(0).name()).isEqualTo("testfile.txt");
+    Assertions.assertThat(result.nextCursor()).isNull();
+  }
+
+  @Test
+  void testGetCurrentUserFiles_MorePages_ReturnsCursor() {
+    File second = createFile(UUID.randomUUID().toString());
+    file.setId(2L);
+    second.setId(1L);
+    when(authentication.getPrincipal()).thenReturn(user);
+    FileQuery query = new FileQuery(null, null, null, null, null, FileSort.SIZE, null, null, 1);
+    when(fileRepository.findPage(user.getId(), query, null, 2)).thenReturn(List.of(file, second));
+
+    FilePage result = fileService.getCurrentUserFiles(query, authentication);
+
+    Assertions.assertThat(result.files()).hasSize(1);
+    FileCursor cursor = FileCursor.decode(result.nextCursor(), FileSort.SIZE, Sort.Direction.ASC);
+    Assertions.assertThat(cursor).isEqualTo(new FileCursor(1234L, 2L));
+  }
+
+  @Test
+  void testGetCurrentUserFiles_CursorForOtherSort_Throws() {
+    String cursor = new FileCursor(1234L, 2L).encode(FileSort.SIZE, Sort.Direction.ASC);
+    when(authentication.getPrincipal()).thenReturn(user);
+
+    Assertions.assertThatThrownBy(() -> fileService.getCurrentUserFiles(new FileQuery(null, null, null, null, null, null, null, cursor, null), authentication))
+      .isInstanceOf(IllegalArgumentException.class);
   }
 
   @Test
   void testGetFileById_Success() {
     when(authentication.getPrincipal()).thenReturn(user);
-    when(fileRepository.findByUuid(fileUuid)).thenReturn(Optional.of(file));
+    when(fileRepository.findDtoByUuidAndUserId(fileUuid, user.getId())).thenReturn(Optional.of(toDto(file)));
 
     FileDto result = fileService.getFileById(fileUuid, authentication);
 
@@ -148,9 +348,10 @@ public class FileServiceTest {
 
   @Test
   void testGetFileById_AccessDenied() {
-    User anotherUser = User.builder().email("anotheruser").build();
+    User anotherUser = User.builder().id(2L).email("anotheruser").build();
     when(authentication.getPrincipal()).thenReturn(anotherUser);
-    when(fileRepository.findByUuid(fileUuid)).thenReturn(Optional.of(file));
+    when(fileRepository.findDtoByUuidAndUserId(fileUuid, 2L)).thenReturn(Optional.empty());
+    when(fileRepository.existsByUuid(fileUuid)).thenReturn(true);
 
     Assertions.assertThatThrownBy(() -> fileService.getFileById(fileUuid, authentication))
       .isInstanceOf(AccessDeniedException.class);
@@ -159,7 +360,8 @@ public class FileServiceTest {
   @Test
   void testGetFileById_NotFound() {
     when(authentication.getPrincipal()).thenReturn(user);
-    when(fileRepository.findByUuid(fileUuid)).thenReturn(Optional.empty());
+    when(fileRepository.findDtoByUuidAndUserId(fileUuid, user.getId())).thenReturn(Optional.empty());
+    when(fileRepository.existsByUuid(fileUuid)).thenReturn(false);
 
     Assertions.assertThatThrownBy(() -> fileService.getFileById(fileUuid, authentication))
       .isInstanceOf(EntityNotFoundException.class);
@@ -168,17 +370,20 @@ public class FileServiceTest {
   @Test
   void testGetPublicFileById_Success() {
     file.setPublic(true);
-    when(fileRepository.findByUuid(fileUuid)).thenReturn(Optional.of(file));
+    file.setChecksum("290f493c44f5d63d06b374d0a5abd292fae38b92cab2fae5efefe1b0e9347f56");
+    when(fileRepository.findPublicDtoByUuid(fileUuid)).thenReturn(Optional.of(toDto(file)));
 
     FileDto result = fileService.getPublicFileById(fileUuid);
 
     Assertions.assertThat(result).isNotNull();
     Assertions.assertThat(result.isPublic()).isTrue();
+    Assertions.assertThat(result.checksum()).isNull();
   }
 
   @Test
   void testGetPublicFileById_AccessDenied() {
-    when(fileRepository.findByUuid(fileUuid)).thenReturn(Optional.of(file));
+    when(fileRepository.findPublicDtoByUuid(fileUuid)).thenReturn(Optional.empty());
+    when(fileRepository.existsByUuid(fileUuid)).thenReturn(true);
 
     Assertions.assertThatThrownBy(() -> fileService.getPublicFileById(fileUuid))
       .isInstanceOf(AccessDeniedException.class);
@@ -187,49 +392,91 @@ public class FileServiceTest {
   @Test
   void testUpdateVisibility_Success() {
     when(authentication.getPrincipal()).thenReturn(user);
-    when(fileRepository.findByUuid(fileUuid)).thenReturn(Optional.of(file));
+    when(fileRepository.findByUuidAndUserId(fileUuid, user.getId())).thenReturn(Optional.of(file));
 
     FileDto result = fileService.updateVisiblity(fileUuid, true, authentication);
         
     Assertions.assertThat(result).isNotNull();
     Assertions.assertThat(result.isPublic()).isTrue();
+    verify(hotFileCache, times(1)).invalidate(fileUuid);
   }
 
   @Test
   void testDeleteFile_Success() throws IOException {
     when(authentication.getPrincipal()).thenReturn(user);
-    when(fileRepository.findByUuid(fileUuid)).thenReturn(Optional.of(file));
+    when(fileRepository.findByUuidAndUserId(fileUuid, user.getId())).thenReturn(Optional.of(file));
 
     try (MockedStatic<Files> mockedFiles = mockStatic(Files.class)) {
-      mockedFiles.when(() -> Files.delete(any(Path.class))).thenAnswer(invocation -> null);
+      mockedFiles.when(() -> Files.deleteIfExists(any(Path.class))).thenReturn(true);
       doNothing().when(fileRepository).delete(file);
 
       fileService.deleteFile(fileUuid, authentication);
             
       verify(fileRepository, times(1)).delete(file);
-      mockedFiles.verify(() -> Files.delete(Path.of(file.getLocation())));
+      verify(hotFileCache, times(1)).invalidate(fileUuid);
+      mockedFiles.verify(() -> Files.deleteIfExists(storageLayout.uploadPath().resolve(file.getLocation())));
     }
   }
     
   @Test
   void testDownloadPublicFile_Success() {
     file.setPublic(true);
-    when(fileRepository.findByUuid(fileUuid)).thenReturn(Optional.of(file));
+    when(fileRepository.findPublicTargetByUuid(fileUuid)).thenReturn(Optional.of(DownloadTarget.of(file)));
         
-    File result = fileService.downloadPublicFile(fileUuid);
+    DownloadTarget result = fileService.downloadPublicFile(fileUuid);
         
     Assertions.assertThat(result).isNotNull();
-    Assertions.assertThat(result.getName()).isEqualTo("testfile.txt");
+    Assertions.assertThat(result.name()).isEqualTo("testfile.txt");
+  }
+
+  @Test
+  void testDownloadFiles_BatchedOwnershipCheck() {
+    when(authentication.getPrincipal()).thenReturn(user);
+    when(fileRepository.findTargetsByUserIdAndUuidIn(user.getId(), Set.of(fileUuid))).thenReturn(List.of(DownloadTarget.of(file)));
+
+    List<DownloadTarget> result = fileService.downloadFiles(List.of(fileUuid, fileUuid), authentication);
+
+    Assertions.assertThat(result).extracting(DownloadTarget::uuid).containsExactly(fileUuid);
+    verify(fileRepository, never()).findTargetByUuidAndUserId(fileUuid, user.getId());
+  }
+
+  @Test
+  void testDownloadFiles_NotOwned_ThrowsNotFound() {
+    String otherUuid = UUID.randomUUID().toString();
+    when(authentication.getPrincipal()).thenReturn(user);
+    when(fileRepository.findTargetsByUserIdAndUuidIn(user.getId(), Set.of(fileUuid, otherUuid))).thenReturn(List.of(DownloadTarget.of(file)));
+
+    Assertions.assertThatThrownBy(() -> fileService.downloadFiles(List.of(fileUuid, otherUuid), authentication))
+      .isInstanceOf(EntityNotFoundException.class);
   }
 
   @Test
   void testDownloadFile_Success() {
     when(authentication.getPrincipal()).thenReturn(user);
-    when(fileRepository.findByUuid(fileUuid)).thenReturn(Optional.of(file));
+    when(fileRepository.findTargetByUuidAndUserId(fileUuid, user.getId())).thenReturn(Optional.of(DownloadTarget.of(file)));
         
-    File result = fileService.downloadFile(fileUuid, authentication);
+    DownloadTarget result = fileService.downloadFile(fileUuid, authentication);
         
     Assertions.assertThat(result).isNotNull();
-    Assertions.assertThat(result.getName()).isEqualTo("testfile.txt");
+    Assertions.assertThat(result.name()).isEqualTo("testfile.txt");
+    Assertions.assertThat(result.location()).isEqualTo(file.getLocation());
+  }
+
+  private FileDto toDto(File file) {
+    return new FileDto(file.getUuid(), file.getName(), file.getType(), file.getSize(), file.isPublic(), file.getUploadedAt(), file.getChecksum());
+  }
+
+  private MockHttpServletRequest createMultipartRequest(String filename, String content) {
+    String boundary = "cloud-share-boundary";
+    String body = "--" + boundary + "\r\n"
+      + "Content-Disposition: form-data; name=\"files\"; filename=\"" + filename + "\"\r\n"
+      + "Content-Type: text/plain\r\n\r\n"
+      + content + "\r\n"
+      + "--" + boundary + "--\r\n";
+
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/uploads");
+    request.setContentType("multipart/form-data; boundary=" + boundary);
+    request.setContent(body.getBytes());
+    return request;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package com.example.cloud_share_api.file;
+
+import static com.example.cloud_share_api.TestUtils.createFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.example.cloud_share_api.infrastructure.storage.LocalStorageBackend;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class HotFileCacheTest {
+  @TempDir
+  private Path uploadDir;
+
+  private HotFileCache hotFileCache;
+  private SimpleMeterRegistry meterRegistry;
+
+  private File file;
+
+  @BeforeEach
+  void setup() throws IOException {
+    StorageLayout storageLayout = new StorageLayout();
+    ReflectionTestUtils.setField(storageLayout, "uploadDir", uploadDir.toString());
+    ReflectionTestUtils.setField(storageLayout, "shardDepth", 2);
+
+    meterRegistry = new SimpleMeterRegistry();
+    hotFileCache = new HotFileCache(new LocalStorageBackend(storageLayout), meterRegistry);
+    ReflectionTestUtils.setField(hotFileCache, "enabled", true);
+    ReflectionTestUtils.setField(hotFileCache, "maxSize", DataSize.ofMegabytes(1));
+    ReflectionTestUtils.setField(hotFileCache, "maxFileSize", DataSize.ofKilobytes(64));
+    ReflectionTestUtils.setField(hotFileCache, "ttl", Duration.ofMinutes(1));
+    hotFileCache.init();
+
+    Files.writeString(uploadDir.resolve("testfile.txt"), "test content");
+    file = createFile(UUID.randomUUID().toString());
+    file.setLocation("testfile.txt");
+    file.setSize(12L);
+    file.setPublic(true);
+  }
+
+  @Test
+  void testContent_PublicFile_CachesBytes() {
+    ByteBuffer content = hotFileCache.content(DownloadTarget.of(file)).orElseThrow();
+
+    Assertions.assertThat(StandardCharsets.UTF_8.decode(content).toString()).isEqualTo("test content");
+    settle();
+    Assertions.assertThat(cachedEntries()).isEqualTo(1);
+    Assertions.assertThat(meterRegistry.get("cache.resident.bytes").gauge().value()).isEqualTo(12);
+  }
+
+  @Test
+  void testContent_PrivateOrLargeFile_NotCached() {
+    file.setPublic(false);
+    Assertions.assertThat(hotFileCache.content(DownloadTarget.of(file))).isEmpty();
+
+    file.setPublic(true);
+    file.setSize(DataSize.ofKilobytes(65).toBytes());
+    Assertions.assertThat(hotFileCache.content(DownloadTarget.of(file))).isEmpty();
+    Assertions.assertThat(cachedEntries()).isZero();
+  }
+
+  @Test
+  void testInvalidate_RemovesEntry() {
+    hotFileCache.content(DownloadTarget.of(file));
+
+    hotFileCache.invalidate(file.getUuid());
+    settle();
+
+    Assertions.assertThat(cachedEntries()).isZero();
+  }
+
+  private void settle() {
+    ((Cache<?, ?>) ReflectionTestUtils.getField(hotFileCache, "cache")).cleanUp();
+  }
+
+  private double cachedEntries() {
+    return meterRegistry.get("cache.size").tag("cache", "hot-files").gauge().value();
+  }
+}
@@ -0,0 +1,204 @@
+package com.example.cloud_share_api.file;
+
+import static com.example.cloud_share_api.TestUtils.createFile;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.example.cloud_share_api.infrastructure.storage.LocalStorageBackend;
+
+@ExtendWith(MockitoExtension.class)
+public class SegmentServiceTest {
+  @Mock
+  private SegmentRepository segmentRepository;
+
+  @Mock
+  private FileRepository fileRepository;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  @TempDir
+  private Path uploadDir;
+
+  private StorageLayout storageLayout;
+  private SegmentService segmentService;
+
+  @BeforeEach
+  void setup() {
+    storageLayout = new StorageLayout();
+    ReflectionTestUtils.setField(storageLayout, "uploadDir", uploadDir.toString());
+    ReflectionTestUtils.setField(storageLayout, "shardDepth", 2);
+
+    segmentService = new SegmentService(segmentRepository, fileRepository, storageLayout, transactionTemplate, new LocalStorageBackend(storageLayout));
+    ReflectionTestUtils.setField(segmentService, "threshold", DataSize.ofKilobytes(64));
+    ReflectionTestUtils.setField(segmentService, "maxSize", DataSize.ofBytes(20));
+    ReflectionTestUtils.setField(segmentService, "compactionRatio", 0.5);
+  }
+
+  @Test
+  void testAccepts_OnlyBelowThreshold() {
+    Assertions.assertThat(segmentService.accepts(DataSize.ofKilobytes(64).toBytes() - 1)).isTrue();
+    Assertions.assertThat(segmentService.accepts(DataSize.ofKilobytes(64).toBytes())).isFalse();
+  }
+
+  @Test
+  void testAppend_PacksIntoActiveSegment() throws IOException {
+    Segment segment = createSegment(uploadDir.resolve("active.seg"), "header");
+    when(segmentRepository.findFirstBySealedFalseOrderByIdAsc()).thenReturn(Optional.of(segment));
+    Path tempFile = writeTempFile("test content");
+
+    StoredContent stored = segmentService.append(tempFile, 12L);
+
+    Assertions.assertThat(stored.segment()).isSameAs(segment);
+    Assertions.assertThat(stored.offset()).isEqualTo(6L);
+    Assertions.assertThat(Files.readString(storageLayout.locate(stored.location()))).isEqualTo("headertest content");
+    Assertions.assertThat(segment.getSize()).isEqualTo(18L);
+    Assertions.assertThat(segment.getLiveBytes()).isEqualTo(18L);
+    Assertions.assertThat(Files.exists(tempFile)).isFalse();
+  }
+
+  @Test
+  void testAppend_FullSegment_SealsAndStartsNew() throws IOException {
+    Segment full = createSegment(uploadDir.resolve("full.seg"), "0123456789012345");
+    when(segmentRepository.findFirstBySealedFalseOrderByIdAsc()).thenReturn(Optional.of(full));
+    when(segmentRepository.save(any(Segment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+    StoredContent stored = segmentService.append(writeTempFile("test content"), 12L);
+
+    Assertions.assertThat(full.isSealed()).isTrue();
+    Assertions.assertThat(stored.segment()).isNotSameAs(full);
+    Assertions.assertThat(stored.offset()).isZero();
+    Assertions.assertThat(storageLayout.locate(stored.location()).getParent()).isEqualTo(storageLayout.segmentsPath());
+    Assertions.assertThat(Files.readString(storageLayout.locate(stored.location()))).isEqualTo("test content");
+  }
+
+  @Test
+  void testRelease_DecrementsLiveBytes() throws IOException {
+    Segment segment = createSegment(uploadDir.resolve("active.seg"), "test content");
+    File file = createPackedFile(segment, 0L, 12L);
+    when(segmentRepository.findByIdForUpdate(segment.getId())).thenReturn(Optional.of(segment));
+
+    segmentService.release(file);
+
+    Assertions.assertThat(segment.getLiveBytes()).isZero();
+    verify(segmentRepository, times(1)).save(segment);
+  }
+
+  @Test
+  void testCompact_MovesLiveFilesAndDropsSegment() throws IOException {
+    Segment sealed = createSegment(uploadDir.resolve("sealed.seg"), "deadtest content");
+    sealed.setSealed(true);
+    sealed.setLiveBytes(12L);
+    File file = createPackedFile(sealed, 4L, 12L);
+    Segment active = createSegment(storageLayout.segmentPath("active"), "");
+    active.setId(102L);
+
+    when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+      TransactionCallback<?> callback = invocation.getArgument(0);
+      return callback.doInTransaction(null);
+    });
+    when(segmentRepository.findCompactionCandidates(0.5)).thenReturn(List.of(sealed.getId()));
+    when(segmentRepository.findByIdForUpdate(sealed.getId())).thenReturn(Optional.of(sealed));
+    when(fileRepository.findBySegmentOrderBySegmentOffsetAsc(sealed)).thenReturn(List.of(file));
+    when(segmentRepository.findFirstBySealedFalseOrderByIdAsc()).thenReturn(Optional.of(active));
+
+    segmentService.compact();
+
+    Assertions.assertThat(file.getSegment()).isSameAs(active);
+    Assertions.assertThat(file.getSegmentOffset()).isZero();
+    Assertions.assertThat(Files.readString(Path.of(active.getLocation()))).isEqualTo("test content");
+    Assertions.assertThat(Files.exists(Path.of(sealed.getLocation()))).isFalse();
+    verify(segmentRepository, times(1)).delete(sealed);
+  }
+
+  @Test
+  void testRelease_SegmentCompactedMeanwhile_FollowsFile() throws IOException {
+    Segment compacted = createSegment(uploadDir.resolve("compacted.seg"), "test content");
+    Segment moved = createSegment(uploadDir.resolve("moved.seg"), "test content");
+    moved.setId(102L);
+    File file = createPackedFile(compacted, 0L, 12L);
+    file.setId(7L);
+    when(segmentRepository.findByIdForUpdate(compacted.getId())).thenReturn(Optional.empty());
+    when(fileRepository.findSegmentIdById(7L)).thenReturn(Optional.of(moved.getId()));
+    when(segmentRepository.findByIdForUpdate(moved.getId())).thenReturn(Optional.of(moved));
+
+    segmentService.release(file);
+
+    Assertions.assertThat(moved.getLiveBytes()).isZero();
+  }
+
+  @Test
+  void testCompact_ReleasedFileStillListed_CarriedOverAsDead() throws IOException {
+    Segment sealed = createSegment(uploadDir.resolve("sealed.seg"), "test content");
+    sealed.setSealed(true);
+    sealed.setLiveBytes(0L);
+    File file = createPackedFile(sealed, 0L, 12L);
+    Segment active = createSegment(storageLayout.segmentPath("active"), "");
+    active.setId(102L);
+
+    when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+      TransactionCallback<?> callback = invocation.getArgument(0);
+      return callback.doInTransaction(null);
+    });
+    when(segmentRepository.findCompactionCandidates(0.5)).thenReturn(List.of(sealed.getId()));
+    when(segmentRepository.findByIdForUpdate(sealed.getId())).thenReturn(Optional.of(sealed));
+    when(fileRepository.findBySegmentOrderBySegmentOffsetAsc(sealed)).thenReturn(List.of(file));
+    when(segmentRepository.findFirstBySealedFalseOrderByIdAsc()).thenReturn(Optional.of(active));
+
+    segmentService.compact();
+
+    Assertions.assertThat(active.getSize()).isEqualTo(12L);
+    Assertions.assertThat(active.getLiveBytes()).isZero();
+  }
+
+  private Segment createSegment(Path location, String content) throws IOException {
+    Files.createDirectories(location.getParent());
+    Files.writeString(location, content);
+
+    return Segment.builder()
+      .id(101L)
+      .location(location.toString())
+      .size((long) content.length())
+      .liveBytes((long) content.length())
+      .sealed(false)
+      .createdAt(Instant.now())
+      .build();
+  }
+
+  private File createPackedFile(Segment segment, long offset, long size) {
+    File file = createFile(UUID.randomUUID().toString());
+    file.setLocation(segment.getLocation());
+    file.setSegment(segment);
+    file.setSegmentOffset(offset);
+    file.setSize(size);
+    return file;
+  }
+
+  private Path writeTempFile(String content) throws IOException {
+    Path tempFile = uploadDir.resolve(UUID.randomUUID().toString());
+    Files.writeString(tempFile, content);
+    return tempFile;
+  }
+}
@@ -0,0 +1,159 @@
+package com.example.cloud_share_api.file;
+
+import static com.example.cloud_share_api.TestUtils.createFile;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+public class StorageMigrationServiceTest {
+  private static final String CHECKSUM = "6ae8a75555209fd6c44157c0aed8016e763ff435a19cf186f76863140143ff72";
+
+  @Mock
+  private FileRepository fileRepository;
+
+  @Mock
+  private BlobRepository blobRepository;
+
+  @Mock
+  private TransactionTemplate transactionTemplate;
+
+  @TempDir
+  private Path uploadDir;
+
+  private StorageLayout storageLayout;
+  private StorageMigrationService storageMigrationService;
+
+  @BeforeEach
+  void setup() {
+    storageLayout = new StorageLayout();
+    ReflectionTestUtils.setField(storageLayout, "uploadDir", uploadDir.toString());
+    ReflectionTestUtils.setField(storageLayout, "shardDepth", 2);
+
+    storageMigrationService = new StorageMigrationService(fileRepository, blobRepository, storageLayout, transactionTemplate);
+    ReflectionTestUtils.setField(storageMigrationService, "batchSize", 10);
+    ReflectionTestUtils.setField(storageMigrationService, "thumbnailSizes", List.of(128, 512));
+
+    when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+      TransactionCallback<?> callback = invocation.getArgument(0);
+      return callback.doInTransaction(null);
+    });
+  }
+
+  @Test
+  void testMigrate_FlatFile_MovesIntoShard() throws IOException {
+    Path source = uploadDir.resolve("abcdef.txt");
+    Files.writeString(source, "test content");
+    File file = createFileAt(source, 101L);
+
+    when(blobRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenReturn(List.of());
+    when(fileRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(file));
+    when(fileRepository.findByIdGreaterThanOrderByIdAsc(eq(101L), any(Pageable.class))).thenReturn(List.of());
+
+    int moved = storageMigrationService.migrate();
+
+    Path target = uploadDir.resolve("ab").resolve("cd").resolve("abcdef.txt");
+    Assertions.assertThat(moved).isEqualTo(1);
+    Assertions.assertThat(Files.readString(target)).isEqualTo("test content");
+    Assertions.assertThat(Files.exists(source)).isFalse();
+    verify(fileRepository, times(1)).updateLocation(source.toString(), "ab/cd/abcdef.txt");
+  }
+
+  @Test
+  void testMigrate_FlatFileWithThumbnail_MovesThumbnailAlong() throws IOException {
+    Path source = uploadDir.resolve("abcdef.jpg");
+    Files.writeString(source, "image");
+    Files.writeString(uploadDir.resolve("abcdef.jpg.thumb-128.jpg"), "thumbnail");
+    File file = createFileAt(source, 101L);
+
+    when(blobRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenReturn(List.of());
+    when(fileRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(file));
+    when(fileRepository.findByIdGreaterThanOrderByIdAsc(eq(101L), any(Pageable.class))).thenReturn(List.of());
+
+    int moved = storageMigrationService.migrate();
+
+    Path shard = uploadDir.resolve("ab").resolve("cd");
+    Assertions.assertThat(moved).isEqualTo(1);
+    Assertions.assertThat(Files.readString(shard.resolve("abcdef.jpg.thumb-128.jpg"))).isEqualTo("thumbnail");
+    Assertions.assertThat(Files.exists(shard.resolve("abcdef.jpg.thumb-512.jpg"))).isFalse();
+    Assertions.assertThat(Files.exists(uploadDir.resolve("abcdef.jpg.thumb-128.jpg"))).isFalse();
+  }
+
+  @Test
+  void testMigrate_FlatBlob_UpdatesBlobAndReferences() throws IOException {
+    Path source = uploadDir.resolve("blobs").resolve(CHECKSUM);
+    Files.createDirectories(source.getParent());
+    Files.writeString(source, "test content");
+    Blob blob = Blob.builder()
+      .id(101L)
+      .hash(CHECKSUM)
+      .location(source.toString())
+      .size(12L)
+      .refCount(2)
+      .createdAt(Instant.now())
+      .build();
+
+    when(blobRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(blob));
+    when(blobRepository.findByIdGreaterThanOrderByIdAsc(eq(101L), any(Pageable.class))).thenReturn(List.of());
+    when(blobRepository.findByHashForUpdate(CHECKSUM)).thenReturn(Optional.of(blob));
+    when(fileRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenReturn(List.of());
+
+    storageMigrationService.migrate();
+
+    Path target = storageLayout.blobPath(CHECKSUM);
+    Assertions.assertThat(blob.getLocation()).isEqualTo("blobs/6a/e8/" + CHECKSUM);
+    Assertions.assertThat(Files.readString(target)).isEqualTo("test content");
+    Assertions.assertThat(Files.exists(source)).isFalse();
+    verify(fileRepository, times(1)).updateLocation(source.toString(), "blobs/6a/e8/" + CHECKSUM);
+  }
+
+  @Test
+  void testMigrate_ShardedFile_IsSkipped() throws IOException {
+    Path location = storageLayout.filePath("abcdef.txt");
+    Files.createDirectories(location.getParent());
+    Files.writeString(location, "test content");
+    File file = createFileAt(location, 101L);
+
+    when(blobRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenReturn(List.of());
+    when(fileRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(file));
+    when(fileRepository.findByIdGreaterThanOrderByIdAsc(eq(101L), any(Pageable.class))).thenReturn(List.of());
+
+    int moved = storageMigrationService.migrate();
+
+    Assertions.assertThat(moved).isZero();
+    Assertions.assertThat(Files.exists(location)).isTrue();
+    verify(fileRepository, never()).updateLocation(anyString(), anyString());
+  }
+
+  private File createFileAt(Path location, Long id) {
+    File file = createFile(UUID.randomUUID().toString());
+    file.setId(id);
+    file.setLocation(location.toString());
+    return file;
+  }
+}
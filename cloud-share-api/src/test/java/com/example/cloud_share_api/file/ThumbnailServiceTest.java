@@ -0,0 +1,130 @@
+package com.example.cloud_share_api.file;
+
+import static com.example.cloud_share_api.TestUtils.createFile;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import javax.imageio.ImageIO;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import com.example.cloud_share_api.infrastructure.storage.LocalStorageBackend;
+
+@ExtendWith(MockitoExtension.class)
+public class ThumbnailServiceTest {
+  @Mock
+  private BlobRepository blobRepository;
+
+  @Mock
+  private SegmentService segmentService;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @TempDir
+  private Path uploadDir;
+
+  private ThumbnailService thumbnailService;
+
+  private File file;
+
+  @BeforeEach
+  void setup() throws IOException {
+    StorageLayout storageLayout = new StorageLayout();
+    ReflectionTestUtils.setField(storageLayout, "uploadDir", uploadDir.toString());
+    ReflectionTestUtils.setField(storageLayout, "shardDepth", 2);
+
+    LocalStorageBackend storageBackend = new LocalStorageBackend(storageLayout);
+    BlobService blobService = new BlobService(blobRepository, storageLayout, segmentService, storageBackend, transactionManager);
+    blobService.init();
+    thumbnailService = new ThumbnailService(storageBackend, storageLayout, blobService);
+    ReflectionTestUtils.setField(thumbnailService, "sizes", List.of(512, 128));
+    ReflectionTestUtils.setField(thumbnailService, "maxSourceSize", DataSize.ofMegabytes(1));
+    ReflectionTestUtils.setField(thumbnailService, "workers", 1);
+    ReflectionTestUtils.setField(thumbnailService, "queueCapacity", 1);
+    ReflectionTestUtils.setField(thumbnailService, "maxPixels", 1_000_000L);
+    ReflectionTestUtils.setField(thumbnailService, "lazyTimeout", Duration.ofSeconds(5));
+    ReflectionTestUtils.setField(thumbnailService, "failureTtl", Duration.ofMinutes(1));
+    thumbnailService.init();
+
+    Path image = uploadDir.resolve("image.png");
+    ImageIO.write(new BufferedImage(1024, 512, BufferedImage.TYPE_INT_ARGB), "png", image.toFile());
+
+    file = createFile(UUID.randomUUID().toString());
+    file.setName("image.png");
+    file.setType("image/png");
+    file.setLocation("image.png");
+    file.setSize(Files.size(image));
+  }
+
+  @AfterEach
+  void shutdown() {
+    thumbnailService.shutdown();
+  }
+
+  @Test
+  void testThumbnail_MissingThumbnail_GeneratedLazily() throws IOException {
+    byte[] content = thumbnailService.thumbnail(DownloadTarget.of(file), 100).orElseThrow();
+
+    BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(content));
+    Assertions.assertThat(thumbnail.getWidth()).isEqualTo(128);
+    Assertions.assertThat(thumbnail.getHeight()).isEqualTo(64);
+    Assertions.assertThat(uploadDir.resolve("image.png.thumb-128.jpg")).exists();
+    Assertions.assertThat(uploadDir.resolve("image.png.thumb-512.jpg")).exists();
+  }
+
+  @Test
+  void testThumbnail_UnsupportedType_ReturnsEmpty() throws IOException {
+    file.setType("application/pdf");
+
+    Assertions.assertThat(thumbnailService.thumbnail(DownloadTarget.of(file), 128)).isEmpty();
+  }
+
+  @Test
+  void testThumbnail_TooManyPixels_RefusedAndRemembered() throws IOException {
+    Path image = uploadDir.resolve("image.png");
+    ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_BYTE_BINARY), "png", image.toFile());
+    file.setSize(Files.size(image));
+
+    Assertions.assertThat(thumbnailService.thumbnail(DownloadTarget.of(file), 128)).isEmpty();
+
+    ImageIO.write(new BufferedImage(100, 50, BufferedImage.TYPE_INT_ARGB), "png", image.toFile());
+    Assertions.assertThat(thumbnailService.thumbnail(DownloadTarget.of(file), 128)).isEmpty();
+    Assertions.assertThat(uploadDir.resolve("image.png.thumb-128.jpg")).doesNotExist();
+  }
+
+  @Test
+  void testThumbnail_CorruptImage_ReturnsEmpty() throws IOException {
+    Files.write(uploadDir.resolve("image.png"), new byte[] { (byte) 0x89, 'P', 'N', 'G', 0, 1, 2, 3 });
+
+    Assertions.assertThat(thumbnailService.thumbnail(DownloadTarget.of(file), 128)).isEmpty();
+  }
+
+  @Test
+  void testRelease_OriginalDeleted_RemovesThumbnails() throws IOException {
+    thumbnailService.thumbnail(DownloadTarget.of(file), 128);
+    Files.delete(uploadDir.resolve("image.png"));
+
+    thumbnailService.release(file);
+
+    Assertions.assertThat(uploadDir.resolve("image.png.thumb-128.jpg")).doesNotExist();
+    Assertions.assertThat(uploadDir.resolve("image.png.thumb-512.jpg")).doesNotExist();
+  }
+}
@@ -0,0 +1,248 @@
+package com.example.cloud_share_api.file;
+
+import static com.example.cloud_share_api.TestUtils.createTestUser;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import com.example.cloud_share_api.infrastructure.storage.LocalStorageBackend;
+
+import com.example.cloud_share_api.infrastructure.exceptions.AccessDeniedException;
+import com.example.cloud_share_api.infrastructure.exceptions.InsufficentCreditException;
+import com.example.cloud_share_api.user.CreditService;
+import com.example.cloud_share_api.user.User;
+import com.example.cloud_share_api.user.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class UploadSessionServiceTest {
+  @Mock
+  private UploadSessionRepository uploadSessionRepository;
+
+  @Mock
+  private FileRepository fileRepository;
+
+  @Mock
+  private CreditService creditService;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private BlobRepository blobRepository;
+
+  @Mock
+  private SegmentService segmentService;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private Authentication authentication;
+
+  @TempDir
+  private Path uploadDir;
+
+  private UploadSessionService uploadSessionService;
+
+  private User user;
+  private StorageLayout storageLayout;
+
+  @BeforeEach
+  void setup() {
+    user = createTestUser("user@test.in", "password");
+
+    storageLayout = new StorageLayout();
+    ReflectionTestUtils.setField(storageLayout, "uploadDir", uploadDir.toString());
+    ReflectionTestUtils.setField(storageLayout, "shardDepth", 2);
+
+    BlobService blobService = new BlobService(blobRepository, storageLayout, segmentService, new LocalStorageBackend(storageLayout), transactionManager);
+    blobService.init();
+    ReflectionTestUtils.setField(blobService, "deduplication", false);
+
+    uploadSessionService = new UploadSessionService(uploadSessionRepository, fileRepository, creditService, userRepository, blobService, eventPublisher, transactionManager);
+    uploadSessionService.init();
+    ReflectionTestUtils.setField(uploadSessionService, "uploadDir", uploadDir.toString());
+    ReflectionTestUtils.setField(uploadSessionService, "chunkSize", DataSize.ofBytes(4));
+    ReflectionTestUtils.setField(uploadSessionService, "maxFileSize", DataSize.ofMegabytes(1));
+    ReflectionTestUtils.setField(uploadSessionService, "expiration", 3600L);
+  }
+
+  @AfterEach
+  void purge() {
+    user = null;
+    uploadSessionService = null;
+  }
+
+  @Test
+  void testCreateSession_Success() {
+    when(authentication.getPrincipal()).thenReturn(user);
+    when(creditService.balance(user)).thenReturn(1);
+
+    UploadSessionDto result = uploadSessionService.createSession(new UploadSessionRequest("test.txt", "text/plain", 10L), authentication);
+
+    Assertions.assertThat(result.chunkSize()).isEqualTo(4L);
+    Assertions.assertThat(result.chunkCount()).isEqualTo(3);
+    Assertions.assertThat(result.receivedChunks()).isEmpty();
+    verify(uploadSessionRepository, times(1)).save(any(UploadSession.class));
+  }
+
+  @Test
+  void testCreateSession_StaleCachedCredit_UsesDatabaseBalance() {
+    user.setCredit(5);
+    when(authentication.getPrincipal()).thenReturn(user);
+    when(creditService.balance(user)).thenReturn(0);
+
+    Assertions.assertThatThrownBy(() -> uploadSessionService.createSession(new UploadSessionRequest("test.txt", "text/plain", 10L), authentication))
+      .isInstanceOf(InsufficentCreditException.class);
+    verify(uploadSessionRepository, never()).save(any(UploadSession.class));
+  }
+
+  @Test
+  void testUploadChunks_OutOfOrder_Complete() throws IOException {
+    UploadSession session = createSession();
+    when(authentication.getPrincipal()).thenReturn(user);
+    when(authentication.getName()).thenReturn(user.getUsername());
+    when(uploadSessionRepository.findByUuid(session.getUuid())).thenReturn(Optional.of(session));
+
+    uploadSessionService.uploadChunk(session.getUuid(), 2, new ByteArrayInputStream("89".getBytes()), authentication);
+    uploadSessionService.uploadChunk(session.getUuid(), 0, new ByteArrayInputStream("0123".getBytes()), authentication);
+    UploadSessionDto progress = uploadSessionService.uploadChunk(session.getUuid(), 1, new ByteArrayInputStream("4567".getBytes()), authentication);
+
+    Assertions.assertThat(progress.receivedChunks()).containsExactly(0, 1, 2);
+    when(uploadSessionRepository.claim(eq(session.getUuid()), any(Instant.class))).thenReturn(1);
+
+    FileDto result = uploadSessionService.completeSession(session.getUuid(), authentication);
+
+    Assertions.assertThat(result.size()).isEqualTo(10L);
+    Assertions.assertThat(Files.readString(storageLayout.filePath(session.getUuid() + ".txt"))).isEqualTo("0123456789");
+    Assertions.assertThat(Files.exists(uploadDir.resolve("sessions").resolve(session.getUuid()))).isFalse();
+
+    verify(creditService, times(1)).reserve(user, 1);
+    verify(fileRepository, times(1)).save(any(File.class));
+    verify(uploadSessionRepository, times(1)).delete(session);
+  }
+
+  @Test
+  void testUploadChunk_WrongLength() {
+    UploadSession session = createSession();
+    when(authentication.getName()).thenReturn(user.getUsername());
+    when(uploadSessionRepository.findByUuid(session.getUuid())).thenReturn(Optional.of(session));
+
+    Assertions.assertThatThrownBy(() -> uploadSessionService.uploadChunk(session.getUuid(), 0, new ByteArrayInputStream("012345".getBytes()), authentication))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void testCompleteSession_MissingChunks() {
+    UploadSession session = createSession();
+    when(authentication.getPrincipal()).thenReturn(user);
+    when(authentication.getName()).thenReturn(user.getUsername());
+    when(uploadSessionRepository.findByUuid(session.getUuid())).thenReturn(Optional.of(session));
+
+    uploadSessionService.uploadChunk(session.getUuid(), 0, new ByteArrayInputStream("0123".getBytes()), authentication);
+
+    Assertions.assertThatThrownBy(() -> uploadSessionService.completeSession(session.getUuid(), authentication))
+      .isInstanceOf(IllegalStateException.class);
+    verify(fileRepository, never()).save(any(File.class));
+  }
+
+  @Test
+  void testCompleteSession_AlreadyClaimed_DoesNotAssemble() {
+    UploadSession session = uploadAllChunks();
+    when(uploadSessionRepository.claim(eq(session.getUuid()), any(Instant.class))).thenReturn(0);
+
+    Assertions.assertThatThrownBy(() -> uploadSessionService.completeSession(session.getUuid(), authentication))
+      .isInstanceOf(IllegalStateException.class);
+    Assertions.assertThat(Files.exists(storageLayout.filePath(session.getUuid() + ".txt"))).isFalse();
+    verify(creditService, never()).reserve(any(), anyInt());
+    verify(fileRepository, never()).save(any(File.class));
+  }
+
+  @Test
+  void testCompleteSession_InsufficentCredit_ReleasesClaimAndContent() {
+    UploadSession session = uploadAllChunks();
+    when(uploadSessionRepository.claim(eq(session.getUuid()), any(Instant.class))).thenReturn(1);
+    when(creditService.reserve(user, 1)).thenThrow(new InsufficentCreditException());
+
+    Assertions.assertThatThrownBy(() -> uploadSessionService.completeSession(session.getUuid(), authentication))
+      .isInstanceOf(InsufficentCreditException.class);
+    Assertions.assertThat(Files.exists(storageLayout.filePath(session.getUuid() + ".txt"))).isFalse();
+    Assertions.assertThat(Files.exists(uploadDir.resolve("sessions").resolve(session.getUuid()))).isTrue();
+    verify(uploadSessionRepository, times(1)).releaseClaim(session.getUuid());
+    verify(uploadSessionRepository, never()).delete(session);
+  }
+
+  @Test
+  void testUploadChunk_SessionCompleting_Rejected() {
+    UploadSession session = createSession();
+    session.setCompletingAt(Instant.now());
+    when(authentication.getName()).thenReturn(user.getUsername());
+    when(uploadSessionRepository.findByUuid(session.getUuid())).thenReturn(Optional.of(session));
+
+    Assertions.assertThatThrownBy(() -> uploadSessionService.uploadChunk(session.getUuid(), 0, new ByteArrayInputStream("0123".getBytes()), authentication))
+      .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void testGetSession_AccessDenied() {
+    UploadSession session = createSession();
+    when(authentication.getName()).thenReturn("anotheruser");
+    when(uploadSessionRepository.findByUuid(session.getUuid())).thenReturn(Optional.of(session));
+
+    Assertions.assertThatThrownBy(() -> uploadSessionService.getSession(session.getUuid(), authentication))
+      .isInstanceOf(AccessDeniedException.class);
+  }
+
+  private UploadSession uploadAllChunks() {
+    UploadSession session = createSession();
+    when(authentication.getPrincipal()).thenReturn(user);
+    when(authentication.getName()).thenReturn(user.getUsername());
+    when(uploadSessionRepository.findByUuid(session.getUuid())).thenReturn(Optional.of(session));
+
+    uploadSessionService.uploadChunk(session.getUuid(), 0, new ByteArrayInputStream("0123".getBytes()), authentication);
+    uploadSessionService.uploadChunk(session.getUuid(), 1, new ByteArrayInputStream("4567".getBytes()), authentication);
+    uploadSessionService.uploadChunk(session.getUuid(), 2, new ByteArrayInputStream("89".getBytes()), authentication);
+    return session;
+  }
+
+  private UploadSession createSession() {
+    return UploadSession.builder()
+      .uuid("session-uuid")
+      .name("test.txt")
+      .type("text/plain")
+      .size(10L)
+      .chunkSize(4L)
+      .createdAt(Instant.now())
+      .expiresAt(Instant.now().plusSeconds(3600))
+      .user(user)
+      .build();
+  }
+}
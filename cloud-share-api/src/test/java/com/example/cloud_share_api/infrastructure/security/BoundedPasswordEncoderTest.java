@@ -0,0 +1,95 @@
+package com.example.cloud_share_api.infrastructure.security;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.cloud_share_api.infrastructure.exceptions.PasswordHashingUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BoundedPasswordEncoderTest {
+  private BoundedPasswordEncoder passwordEncoder;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    passwordEncoder = new BoundedPasswordEncoder(meterRegistry);
+    ReflectionTestUtils.setField(passwordEncoder, "encoderId", "bcrypt");
+    ReflectionTestUtils.setField(passwordEncoder, "bcryptStrength", 4);
+    ReflectionTestUtils.setField(passwordEncoder, "workers", 1);
+    ReflectionTestUtils.setField(passwordEncoder, "queueCapacity", 1);
+    ReflectionTestUtils.setField(passwordEncoder, "maxWait", Duration.ofSeconds(5));
+    passwordEncoder.init();
+  }
+
+  @AfterEach
+  void shutdown() {
+    passwordEncoder.shutdown();
+  }
+
+  @Test
+  void testEncode_MatchesAndRecordsLatency() {
+    String encoded = passwordEncoder.encode("password");
+
+    Assertions.assertThat(encoded).startsWith("{bcrypt}");
+    Assertions.assertThat(passwordEncoder.matches("password", encoded)).isTrue();
+    Assertions.assertThat(passwordEncoder.matches("wrong", encoded)).isFalse();
+    Assertions.assertThat(meterRegistry.get("password.hash.duration").tag("operation", "matches").timer().count()).isEqualTo(2);
+  }
+
+  @Test
+  void testUpgradeEncoding_LegacyOrWeakerHash() {
+    String legacy = new BCryptPasswordEncoder(4).encode("password");
+
+    Assertions.assertThat(passwordEncoder.matches("password", legacy)).isTrue();
+    Assertions.assertThat(passwordEncoder.upgradeEncoding(legacy)).isTrue();
+    Assertions.assertThat(passwordEncoder.upgradeEncoding(passwordEncoder.encode("password"))).isFalse();
+
+    ReflectionTestUtils.setField(passwordEncoder, "bcryptStrength", 5);
+    passwordEncoder.init();
+    Assertions.assertThat(passwordEncoder.upgradeEncoding("{bcrypt}" + legacy)).isTrue();
+  }
+
+  @Test
+  void testEncode_PoolSaturated_RejectsFast() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    PasswordEncoder blocking = mock(PasswordEncoder.class);
+    when(blocking.encode(any())).thenAnswer(invocation -> {
+      started.countDown();
+      release.await();
+      return "encoded";
+    });
+    ReflectionTestUtils.setField(passwordEncoder, "delegate", blocking);
+
+    CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("first"));
+    Assertions.assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("second"));
+    while (meterRegistry.get("password.hash.queue.size").gauge().value() < 1) {
+      Thread.onSpinWait();
+    }
+
+    Assertions.assertThatThrownBy(() -> passwordEncoder.encode("third"))
+      .isInstanceOf(PasswordHashingUnavailableException.class);
+    Assertions.assertThat(meterRegistry.get("password.hash.rejected").counter().count()).isEqualTo(1);
+
+    release.countDown();
+    Assertions.assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("encoded");
+    Assertions.assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("encoded");
+  }
+}
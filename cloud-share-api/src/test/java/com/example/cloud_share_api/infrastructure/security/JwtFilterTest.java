@@ -0,0 +1,144 @@
+package com.example.cloud_share_api.infrastructure.security;
+
+import static com.example.cloud_share_api.TestUtils.createFile;
+import static com.example.cloud_share_api.TestUtils.createTestUser;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import com.example.cloud_share_api.file.BlobService;
+import com.example.cloud_share_api.file.DownloadTarget;
+import com.example.cloud_share_api.file.File;
+import com.example.cloud_share_api.file.FileDto;
+import com.example.cloud_share_api.file.FileQuery;
+import com.example.cloud_share_api.file.FileRepository;
+import com.example.cloud_share_api.file.FileService;
+import com.example.cloud_share_api.file.HotFileCache;
+import com.example.cloud_share_api.file.ThumbnailService;
+import com.example.cloud_share_api.user.CreditService;
+import com.example.cloud_share_api.user.User;
+import com.example.cloud_share_api.user.UserRepository;
+import com.example.cloud_share_api.user.UserService;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtFilterTest {
+  private static final String SECRET_KEY = "81143a9407f2fdc4625ecd26eaeac64cd9512b3f57dfc513179e8f237e29e18d";
+
+  @Mock
+  private UserService userService;
+
+  @Mock
+  private HandlerExceptionResolver handlerExceptionResolver;
+
+  @Mock
+  private SecurityVersionTable securityVersionTable;
+
+  @Mock
+  private FileRepository fileRepository;
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private CreditService creditService;
+
+  @Mock
+  private BlobService blobService;
+
+  @Mock
+  private HotFileCache hotFileCache;
+
+  @Mock
+  private ThumbnailService thumbnailService;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private JwtProvider jwtProvider;
+  private JwtFilter jwtFilter;
+  private FileService fileService;
+  private User user;
+
+  @BeforeEach
+  void setup() {
+    jwtProvider = new JwtProvider();
+    ReflectionTestUtils.setField(jwtProvider, "secretKey", SECRET_KEY);
+    ReflectionTestUtils.setField(jwtProvider, "expiration", 3600);
+    ReflectionTestUtils.setField(jwtProvider, "verifiedCacheSize", 0L);
+    ReflectionTestUtils.setField(jwtProvider, "verifiedCacheTtl", Duration.ofSeconds(30));
+    jwtProvider.init();
+
+    jwtFilter = new JwtFilter(jwtProvider, userService, handlerExceptionResolver, securityVersionTable);
+    ReflectionTestUtils.setField(jwtFilter, "stateless", true);
+    ReflectionTestUtils.setField(jwtFilter, "statelessPaths", List.of("/api/v1/uploads/**"));
+
+    fileService = new FileService(creditService, userRepository, fileRepository, blobService, hotFileCache, thumbnailService, eventPublisher, transactionManager);
+    ReflectionTestUtils.setField(fileService, "defaultPageSize", 50);
+    ReflectionTestUtils.setField(fileService, "maxPageSize", 200);
+
+    user = createTestUser("user@test.in", "password");
+    user.setId(101L);
+  }
+
+  @AfterEach
+  void purge() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void testStatelessGet_ReachesOwnerScopedFileReads() throws Exception {
+    File file = createFile("file-uuid");
+    file.setUser(user);
+    FileQuery query = new FileQuery(null, null, null, null, null, null, null, null, null);
+    when(securityVersionTable.current(101L, 0)).thenReturn(0);
+    when(fileRepository.findTargetByUuidAndUserId("file-uuid", 101L)).thenReturn(Optional.of(DownloadTarget.of(file)));
+    when(fileRepository.findTargetsByUserId(101L)).thenReturn(List.of(DownloadTarget.of(file)));
+    when(fileRepository.findPage(101L, query, null, 51)).thenReturn(List.of(file));
+    when(fileRepository.findDtoByUuidAndUserId("file-uuid", 101L)).thenReturn(Optional.of(
+      new FileDto("file-uuid", file.getName(), file.getType(), file.getSize(), false, file.getUploadedAt(), null)
+    ));
+
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/uploads/download/file-uuid");
+    request.setServletPath("/api/v1/uploads/download/file-uuid");
+    request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtProvider.generateToken(user));
+
+    AtomicReference<Authentication> authentication = new AtomicReference<>();
+    jwtFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+      authentication.set(SecurityContextHolder.getContext().getAuthentication());
+      Assertions.assertThat(fileService.downloadFile("file-uuid", authentication.get()).uuid()).isEqualTo("file-uuid");
+      Assertions.assertThat(fileService.getFileById("file-uuid", authentication.get()).uuid()).isEqualTo("file-uuid");
+      Assertions.assertThat(fileService.downloadFiles(null, authentication.get())).hasSize(1);
+      Assertions.assertThat(fileService.getCurrentUserFiles(query, authentication.get()).files()).hasSize(1);
+    });
+
+    Assertions.assertThat(authentication.get().getPrincipal()).isInstanceOf(StatelessPrincipal.class);
+    verify(userService, never()).loadCachedUserByUsername(any());
+    verify(handlerExceptionResolver, never()).resolveException(any(), any(), any(), any());
+  }
+}
@@ -0,0 +1,131 @@
+package com.example.cloud_share_api.infrastructure.security;
+
+import static com.example.cloud_share_api.TestUtils.createTestUser;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.cloud_share_api.user.User;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+public class JwtProviderTest {
+  private static final String SECRET_KEY = "81143a9407f2fdc4625ecd26eaeac64cd9512b3f57dfc513179e8f237e29e18d";
+
+  private JwtProvider jwtProvider;
+
+  private User user;
+
+  @BeforeEach
+  void setup() {
+    jwtProvider = createProvider(100);
+    user = createTestUser("user@test.in", "password");
+    user.setId(101L);
+  }
+
+  @Test
+  void testExtractClaims_ValidToken_VerifiedOnce() {
+    String token = jwtProvider.generateToken(user);
+
+    Claims claims = jwtProvider.extractClaims(token);
+
+    Assertions.assertThat(claims.getSubject()).isEqualTo("user@test.in");
+    Assertions.assertThat(jwtProvider.extractClaims(token)).isSameAs(claims);
+  }
+
+  @Test
+  void testExtractClaims_CacheDisabled_ParsesEveryTime() {
+    jwtProvider = createProvider(0);
+    String token = jwtProvider.generateToken(user);
+
+    Assertions.assertThat(jwtProvider.extractClaims(token)).isNotSameAs(jwtProvider.extractClaims(token));
+  }
+
+  @Test
+  void testExtractClaims_TamperedToken_Rejected() {
+    String token = jwtProvider.generateToken(user);
+    String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+    Assertions.assertThatThrownBy(() -> jwtProvider.extractClaims(tampered))
+      .isInstanceOf(JwtException.class);
+  }
+
+  @Test
+  void testExtractClaims_TokenWithAudience_Rejected() {
+    String link = Jwts.builder()
+      .subject(user.getUsername())
+      .audience().add("download").and()
+      .expiration(Date.from(Instant.now().plusSeconds(60)))
+      .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)))
+      .compact();
+
+    Assertions.assertThatThrownBy(() -> jwtProvider.extractClaims(link))
+      .isInstanceOf(JwtException.class);
+  }
+
+  @Test
+  void testValidToken_MatchesSubject() {
+    Claims claims = jwtProvider.extractClaims(jwtProvider.generateToken(user));
+
+    Assertions.assertThat(jwtProvider.validToken(user, claims)).isTrue();
+    Assertions.assertThat(jwtProvider.validToken(createTestUser("anotheruser@test.in", "password"), claims)).isFalse();
+  }
+
+  @Test
+  void testGenerateToken_EmbedsUserIdAndVersion() {
+    user.setSecurityVersion(3);
+
+    Claims claims = jwtProvider.extractClaims(jwtProvider.generateToken(user));
+
+    Assertions.assertThat(jwtProvider.getUserId(claims)).isEqualTo(101L);
+    Assertions.assertThat(jwtProvider.getVersion(claims)).isEqualTo(3);
+  }
+
+  @Test
+  void testValidToken_PasswordChanged_Rejected() {
+    Claims claims = jwtProvider.extractClaims(jwtProvider.generateToken(user));
+
+    user.setSecurityVersion(1);
+
+    Assertions.assertThat(jwtProvider.validToken(user, claims)).isFalse();
+  }
+
+  @Test
+  void testValidToken_NewerThanCachedUser_Accepted() {
+    user.setSecurityVersion(2);
+    Claims claims = jwtProvider.extractClaims(jwtProvider.generateToken(user));
+
+    user.setSecurityVersion(1);
+
+    Assertions.assertThat(jwtProvider.validToken(user, claims)).isTrue();
+  }
+
+  @Test
+  void testValidToken_StatelessPrincipal_ComparesTableVersion() {
+    user.setSecurityVersion(1);
+    Claims claims = jwtProvider.extractClaims(jwtProvider.generateToken(user));
+
+    Assertions.assertThat(jwtProvider.validToken(new StatelessPrincipal(101L, user.getEmail(), 1), claims)).isTrue();
+    Assertions.assertThat(jwtProvider.validToken(new StatelessPrincipal(101L, user.getEmail(), 2), claims)).isFalse();
+  }
+
+  private JwtProvider createProvider(long verifiedCacheSize) {
+    JwtProvider provider = new JwtProvider();
+    ReflectionTestUtils.setField(provider, "secretKey", SECRET_KEY);
+    ReflectionTestUtils.setField(provider, "expiration", 3600);
+    ReflectionTestUtils.setField(provider, "verifiedCacheSize", verifiedCacheSize);
+    ReflectionTestUtils.setField(provider, "verifiedCacheTtl", Duration.ofSeconds(30));
+    provider.init();
+    return provider;
+  }
+}
@@ -0,0 +1,129 @@
+package com.example.cloud_share_api.infrastructure.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import com.example.cloud_share_api.infrastructure.exceptions.RateLimitExceededException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimitFilterTest {
+  @Mock
+  private HandlerExceptionResolver handlerExceptionResolver;
+
+  private RateLimitFilter rateLimitFilter;
+
+  @BeforeEach
+  void setup() {
+    rateLimitFilter = new RateLimitFilter(handlerExceptionResolver, new ObjectMapper());
+    ReflectionTestUtils.setField(rateLimitFilter, "enabled", true);
+    ReflectionTestUtils.setField(rateLimitFilter, "window", Duration.ofMinutes(1));
+    ReflectionTestUtils.setField(rateLimitFilter, "sketchDepth", 4);
+    ReflectionTestUtils.setField(rateLimitFilter, "sketchWidth", 1024);
+    ReflectionTestUtils.setField(rateLimitFilter, "maxBodySize", DataSize.ofKilobytes(8));
+    ReflectionTestUtils.setField(rateLimitFilter, "routes", List.of("/api/v1/auth/login=2", "/api/v1/auth/forgot-password/{email}=1"));
+    rateLimitFilter.init();
+  }
+
+  @Test
+  void testLogin_OverLimit_Rejected() throws ServletException, IOException {
+    for (int i = 0; i < 2; i++) {
+      rateLimitFilter.doFilter(request("/api/v1/auth/login", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+    }
+    verify(handlerExceptionResolver, never()).resolveException(any(), any(), any(), any());
+
+    FilterChain chain = new MockFilterChain();
+    rateLimitFilter.doFilter(request("/api/v1/auth/login", "10.0.0.1"), new MockHttpServletResponse(), chain);
+
+    verify(handlerExceptionResolver, times(1)).resolveException(any(), any(), isNull(), any(RateLimitExceededException.class));
+  }
+
+  @Test
+  void testLogin_DifferentAddress_Permitted() throws ServletException, IOException {
+    for (int i = 0; i < 2; i++) {
+      rateLimitFilter.doFilter(request("/api/v1/auth/login", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    rateLimitFilter.doFilter(request("/api/v1/auth/login", "10.0.0.2"), new MockHttpServletResponse(), new MockFilterChain());
+
+    verify(handlerExceptionResolver, never()).resolveException(any(), any(), any(), any());
+  }
+
+  @Test
+  void testForgotPassword_SameEmailFromAnotherAddress_Rejected() throws ServletException, IOException {
+    rateLimitFilter.doFilter(request("/api/v1/auth/forgot-password/user@test.in", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+
+    rateLimitFilter.doFilter(request("/api/v1/auth/forgot-password/USER@test.in", "10.0.0.2"), new MockHttpServletResponse(), new MockFilterChain());
+
+    verify(handlerExceptionResolver, times(1)).resolveException(any(), any(), isNull(), any(RateLimitExceededException.class));
+  }
+
+  @Test
+  void testLogin_SameBodyEmailFromManyAddresses_Rejected() throws ServletException, IOException {
+    for (int i = 0; i < 2; i++) {
+      rateLimitFilter.doFilter(login("10.0.0." + i, "user@test.in"), new MockHttpServletResponse(), new MockFilterChain());
+    }
+    verify(handlerExceptionResolver, never()).resolveException(any(), any(), any(), any());
+
+    rateLimitFilter.doFilter(login("10.0.0.9", "USER@test.in"), new MockHttpServletResponse(), new MockFilterChain());
+
+    verify(handlerExceptionResolver, times(1)).resolveException(any(), any(), isNull(), any(RateLimitExceededException.class));
+  }
+
+  @Test
+  void testLogin_BodyStillReadableDownstream() throws ServletException, IOException {
+    MockFilterChain chain = new MockFilterChain();
+
+    rateLimitFilter.doFilter(login("10.0.0.1", "user@test.in"), new MockHttpServletResponse(), chain);
+
+    String body = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    assertEquals("{\"email\":\"user@test.in\",\"password\":\"secret\"}", body);
+  }
+
+  @Test
+  void testUnlistedRoute_NotLimited() throws ServletException, IOException {
+    for (int i = 0; i < 5; i++) {
+      rateLimitFilter.doFilter(request("/api/v1/auth/verify-email", "10.0.0.1"), new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    verify(handlerExceptionResolver, never()).resolveException(any(), any(), any(), any());
+  }
+
+  private MockHttpServletRequest request(String path, String address) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+    request.setServletPath(path);
+    request.setRemoteAddr(address);
+    return request;
+  }
+
+  private MockHttpServletRequest login(String address, String email) {
+    MockHttpServletRequest request = request("/api/v1/auth/login", address);
+    request.setContentType("application/json");
+    request.setContent(("{\"email\":\"" + email + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+    return request;
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.cloud_share_api.infrastructure.security;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.cloud_share_api.user.SecurityVersion;
+import com.example.cloud_share_api.user.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class SecurityVersionTableTest {
+  @Mock
+  private UserRepository userRepository;
+
+  private SecurityVersionTable securityVersionTable;
+
+  @BeforeEach
+  void setup() {
+    securityVersionTable = new SecurityVersionTable(userRepository);
+    ReflectionTestUtils.setField(securityVersionTable, "enabled", true);
+  }
+
+  @Test
+  void testCurrent_LoadsChangedVersionsOnce() {
+    when(userRepository.findSecurityVersionsChangedSince(Instant.EPOCH))
+      .thenReturn(List.of(new SecurityVersion(101L, 2, Instant.now())));
+
+    Assertions.assertThat(securityVersionTable.current(101L)).isEqualTo(2);
+    Assertions.assertThat(securityVersionTable.current(102L)).isZero();
+
+    verify(userRepository, times(1)).findSecurityVersionsChangedSince(any(Instant.class));
+  }
+
+  @Test
+  void testRefresh_IncrementalChanges_KeepHighestVersion() {
+    when(userRepository.findSecurityVersionsChangedSince(any(Instant.class)))
+      .thenReturn(List.of(new SecurityVersion(101L, 2, Instant.now())))
+      .thenReturn(List.of(new SecurityVersion(101L, 3, Instant.now()), new SecurityVersion(102L, 1, Instant.now())))
+      .thenReturn(List.of(new SecurityVersion(101L, 2, Instant.now())));
+
+    securityVersionTable.refreshScheduled();
+    securityVersionTable.refreshScheduled();
+    securityVersionTable.refreshScheduled();
+
+    Assertions.assertThat(securityVersionTable.current(101L)).isEqualTo(3);
+    Assertions.assertThat(securityVersionTable.current(102L)).isEqualTo(1);
+  }
+
+  @Test
+  void testCurrent_NewerTokenVersion_RefreshesOnDemand() {
+    when(userRepository.findSecurityVersionsChangedSince(any(Instant.class)))
+      .thenReturn(List.of(new SecurityVersion(101L, 1, Instant.now())))
+      .thenReturn(List.of(new SecurityVersion(101L, 2, Instant.now())));
+
+    Assertions.assertThat(securityVersionTable.current(101L, 1)).isEqualTo(1);
+    Assertions.assertThat(securityVersionTable.current(101L, 2)).isEqualTo(2);
+
+    verify(userRepository, times(2)).findSecurityVersionsChangedSince(any(Instant.class));
+  }
+
+  @Test
+  void testRefreshScheduled_Disabled_SkipsQuery() {
+    ReflectionTestUtils.setField(securityVersionTable, "enabled", false);
+
+    securityVersionTable.refreshScheduled();
+
+    verify(userRepository, never()).findSecurityVersionsChangedSince(any(Instant.class));
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.cloud_share_api.infrastructure.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SlidingWindowSketchTest {
+  private static final long WINDOW = 60_000;
+
+  @Test
+  void testIncrement_CountsWithinWindow() {
+    SlidingWindowSketch sketch = new SlidingWindowSketch(4, 1024, WINDOW);
+
+    for (int i = 1; i <= 5; i++) {
+      Assertions.assertThat(sketch.increment("ip|10.0.0.1", WINDOW * 10)).isEqualTo(i);
+    }
+    Assertions.assertThat(sketch.increment("ip|10.0.0.2", WINDOW * 10)).isEqualTo(1);
+  }
+
+  @Test
+  void testIncrement_PreviousWindowDecays() {
+    SlidingWindowSketch sketch = new SlidingWindowSketch(4, 1024, WINDOW);
+    for (int i = 0; i < 10; i++) {
+      sketch.increment("ip|10.0.0.1", WINDOW * 10);
+    }
+
+    Assertions.assertThat(sketch.increment("ip|10.0.0.1", WINDOW * 11 + WINDOW / 4)).isEqualTo(10 * 0.75 + 1);
+    Assertions.assertThat(sketch.increment("ip|10.0.0.1", WINDOW * 13)).isEqualTo(1);
+  }
+
+  @Test
+  void testIncrement_StaleTimestamp_DoesNotRewind() {
+    SlidingWindowSketch sketch = new SlidingWindowSketch(4, 1024, WINDOW);
+    sketch.increment("ip|10.0.0.1", WINDOW * 11);
+
+    sketch.increment("ip|10.0.0.1", WINDOW * 10);
+
+    Assertions.assertThat(sketch.increment("ip|10.0.0.1", WINDOW * 11)).isEqualTo(3);
+  }
+
+  @Test
+  void testIncrement_Concurrent_NoLostUpdates() throws Exception {
+    SlidingWindowSketch sketch = new SlidingWindowSketch(4, 1024, WINDOW);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < 1000; j++) {
+            sketch.increment("ip|10.0.0.1", WINDOW * 10);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Assertions.assertThat(sketch.increment("ip|10.0.0.1", WINDOW * 10)).isEqualTo(8001);
+  }
+}
@@ -0,0 +1,111 @@
+package com.example.cloud_share_api.infrastructure.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+@Testcontainers
+class S3StorageBackendTest {
+  private static final String BUCKET = "cloud-share-test";
+
+  @Container
+  private static MinIOContainer minioContainer = new MinIOContainer(DockerImageName.parse("minio/minio"));
+
+  @TempDir
+  private Path tempDir;
+
+  private S3Client s3Client;
+  private S3StorageBackend storageBackend;
+
+  @BeforeEach
+  void setup() {
+    s3Client = S3Client.builder()
+      .endpointOverride(URI.create(minioContainer.getS3URL()))
+      .region(Region.US_EAST_1)
+      .forcePathStyle(true)
+      .credentialsProvider(StaticCredentialsProvider.create(
+        AwsBasicCredentials.create(minioContainer.getUserName(), minioContainer.getPassword())
+      ))
+      .build();
+
+    if (!s3Client.listBuckets().buckets().stream().anyMatch(bucket -> bucket.name().equals(BUCKET))) {
+      s3Client.createBucket(request -> request.bucket(BUCKET));
+    }
+
+    storageBackend = new S3StorageBackend(s3Client);
+    ReflectionTestUtils.setField(storageBackend, "bucket", BUCKET);
+    ReflectionTestUtils.setField(storageBackend, "partSize", DataSize.ofMegabytes(5));
+    ReflectionTestUtils.setField(storageBackend, "uploadParallelism", 3);
+    storageBackend.init();
+  }
+
+  @AfterEach
+  void cleanup() {
+    storageBackend.shutdown();
+    s3Client.close();
+  }
+
+  @Test
+  void testPutAndGet_SmallObject() throws IOException {
+    Path source = tempDir.resolve("small.txt");
+    Files.writeString(source, "test content");
+
+    storageBackend.put("ab/cd/small.txt", source);
+
+    Assertions.assertThat(Files.exists(source)).isFalse();
+    try (InputStream inputStream = storageBackend.get("ab/cd/small.txt")) {
+      Assertions.assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("test content");
+    }
+    try (InputStream inputStream = storageBackend.get("ab/cd/small.txt", 5, 7)) {
+      Assertions.assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("content");
+    }
+    Assertions.assertThat(storageBackend.stat("ab/cd/small.txt")).get().extracting(StorageObject::size).isEqualTo(12L);
+  }
+
+  @Test
+  void testPut_LargeObject_UsesParallelMultipartUpload() throws IOException {
+    byte[] content = new byte[(int) DataSize.ofMegabytes(12).toBytes()];
+    new Random(42).nextBytes(content);
+    Path source = tempDir.resolve("large.bin");
+    Files.write(source, content);
+
+    storageBackend.put("large.bin", source);
+
+    try (InputStream inputStream = storageBackend.get("large.bin")) {
+      Assertions.assertThat(inputStream.readAllBytes()).isEqualTo(content);
+    }
+    Assertions.assertThat(storageBackend.stat("large.bin")).get().extracting(StorageObject::size).isEqualTo((long) content.length);
+  }
+
+  @Test
+  void testDelete_RemovesObject() throws IOException {
+    Path source = tempDir.resolve("deleted.txt");
+    Files.writeString(source, "test content");
+    storageBackend.put("deleted.txt", source);
+
+    storageBackend.delete("deleted.txt");
+
+    Assertions.assertThat(storageBackend.stat("deleted.txt")).isEmpty();
+  }
+}
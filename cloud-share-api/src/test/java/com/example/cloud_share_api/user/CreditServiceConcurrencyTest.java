@@ -0,0 +1,99 @@
+package com.example.cloud_share_api.user;
+
+import static com.example.cloud_share_api.TestUtils.createTestUser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.example.cloud_share_api.infrastructure.exceptions.InsufficentCreditException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ CreditService.class, UserCache.class, SimpleMeterRegistry.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CreditServiceConcurrencyTest {
+  @Container
+  @ServiceConnection
+  private static PostgreSQLContainer<?> psqlContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:alpine"));
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private CreditService creditService;
+
+  private User user;
+
+  @BeforeEach
+  void setup() {
+    user = userRepository.save(createTestUser("user@test.in", "password"));
+  }
+
+  @AfterEach
+  void purge() {
+    userRepository.deleteAll();
+  }
+
+  @Test
+  void shouldNeverOverdraw_whenReservedConcurrently() throws Exception {
+    int credit = user.getCredit();
+    int attempts = credit * 10;
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+
+    try {
+      List<Callable<Boolean>> tasks = new ArrayList<>();
+      for (int i = 0; i < attempts; i++) {
+        tasks.add(() -> {
+          try {
+            creditService.reserve(user, 1);
+            return true;
+          } catch (InsufficentCreditException e) {
+            return false;
+          }
+        });
+      }
+
+      int reserved = 0;
+      for (Future<Boolean> result : executor.invokeAll(tasks)) {
+        reserved += result.get() ? 1 : 0;
+      }
+
+      Assertions.assertThat(reserved).isEqualTo(credit);
+      Assertions.assertThat(userRepository.findById(user.getId()).orElseThrow().getCredit()).isZero();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void shouldRestoreCredit_whenReservationReleased() {
+    int credit = user.getCredit();
+
+    creditService.reserve(user, 2).releaseAll();
+
+    Assertions.assertThat(userRepository.findById(user.getId()).orElseThrow().getCredit()).isEqualTo(credit);
+  }
+}
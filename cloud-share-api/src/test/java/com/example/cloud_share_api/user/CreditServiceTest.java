@@ -0,0 +1,123 @@
+package com.example.cloud_share_api.user;
+
+import static com.example.cloud_share_api.TestUtils.createTestUser;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.cloud_share_api.infrastructure.exceptions.InsufficentCreditException;
+
+@ExtendWith(MockitoExtension.class)
+public class CreditServiceTest {
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private UserCache userCache;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private CreditService creditService;
+
+  private User user;
+
+  @BeforeEach
+  void setup() {
+    user = createTestUser("user@test.in", "password");
+    user.setId(1L);
+    creditService = new CreditService(userRepository, userCache, transactionManager);
+    creditService.init();
+  }
+
+  @AfterEach
+  void purge() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    user = null;
+    creditService = null;
+  }
+
+  @Test
+  void testReserve_Success() {
+    when(userRepository.debitCredit(1L, 2)).thenReturn(1);
+
+    CreditReservation reservation = creditService.reserve(user, 2);
+
+    Assertions.assertThat(reservation.amount()).isEqualTo(2);
+    verify(userRepository, never()).addCredit(1L, 2);
+    verify(userCache, times(1)).invalidate("user@test.in");
+  }
+
+  @Test
+  void testReserve_InsufficentCredit() {
+    when(userRepository.debitCredit(1L, 6)).thenReturn(0);
+
+    Assertions.assertThatThrownBy(() -> creditService.reserve(user, 6))
+      .isInstanceOf(InsufficentCreditException.class);
+    verify(userCache, never()).invalidate("user@test.in");
+  }
+
+  @Test
+  void testRelease_RefundsOnlyOnce() {
+    when(userRepository.debitCredit(1L, 3)).thenReturn(1);
+
+    CreditReservation reservation = creditService.reserve(user, 3);
+    reservation.release(1);
+    reservation.releaseAll();
+    reservation.releaseAll();
+
+    Assertions.assertThat(reservation.amount()).isZero();
+    verify(userRepository, times(1)).addCredit(1L, 1);
+    verify(userRepository, times(1)).addCredit(1L, 2);
+  }
+
+  @Test
+  void testBalance_ReadsFromDatabase() {
+    user.setCredit(5);
+    when(userRepository.findCreditById(1L)).thenReturn(Optional.of(2));
+
+    Assertions.assertThat(creditService.balance(user)).isEqualTo(2);
+  }
+
+  @Test
+  void testReserve_RolledBack_RefundsReservation() {
+    TransactionSynchronizationManager.initSynchronization();
+    when(userRepository.debitCredit(1L, 1)).thenReturn(1);
+
+    creditService.reserve(user, 1);
+    for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+
+    verify(userRepository, times(1)).addCredit(1L, 1);
+  }
+
+  @Test
+  void testReserve_Committed_KeepsReservation() {
+    TransactionSynchronizationManager.initSynchronization();
+    when(userRepository.debitCredit(1L, 1)).thenReturn(1);
+
+    creditService.reserve(user, 1);
+    for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    verify(userRepository, never()).addCredit(1L, 1);
+  }
+}
@@ -0,0 +1,75 @@
+package com.example.cloud_share_api.user;
+
+import static com.example.cloud_share_api.TestUtils.createTestUser;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class UserCacheTest {
+  @Mock
+  private UserRepository userRepository;
+
+  private UserCache userCache;
+  private SimpleMeterRegistry meterRegistry;
+
+  private User user;
+
+  @BeforeEach
+  void setup() {
+    user = createTestUser("user@test.in", "password");
+
+    meterRegistry = new SimpleMeterRegistry();
+    userCache = new UserCache(userRepository, meterRegistry);
+    ReflectionTestUtils.setField(userCache, "enabled", true);
+    ReflectionTestUtils.setField(userCache, "maxSize", 100L);
+    ReflectionTestUtils.setField(userCache, "ttl", Duration.ofMinutes(1));
+    userCache.init();
+  }
+
+  @Test
+  void testFindByEmail_RepeatedLookups_QueriesOnce() {
+    when(userRepository.findByEmail("user@test.in")).thenReturn(Optional.of(user));
+
+    for (int i = 0; i < 10; i++) {
+      Assertions.assertThat(userCache.findByEmail("user@test.in")).containsSame(user);
+    }
+
+    verify(userRepository, times(1)).findByEmail("user@test.in");
+    Assertions.assertThat(meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit").functionCounter().count()).isEqualTo(9);
+  }
+
+  @Test
+  void testInvalidate_ReloadsUser() {
+    when(userRepository.findByEmail("user@test.in")).thenReturn(Optional.of(user));
+
+    userCache.findByEmail("user@test.in");
+    userCache.invalidate("user@test.in");
+    userCache.findByEmail("user@test.in");
+
+    verify(userRepository, times(2)).findByEmail("user@test.in");
+  }
+
+  @Test
+  void testFindByEmail_UnknownUser_NotCached() {
+    when(userRepository.findByEmail("anotheruser@test.in")).thenReturn(Optional.empty());
+
+    Assertions.assertThat(userCache.findByEmail("anotheruser@test.in")).isEmpty();
+    Assertions.assertThat(userCache.findByEmail("anotheruser@test.in")).isEmpty();
+
+    verify(userRepository, times(2)).findByEmail("anotheruser@test.in");
+  }
+}
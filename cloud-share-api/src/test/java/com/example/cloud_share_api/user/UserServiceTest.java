@@ -1,6 +1,7 @@
 package com.example.cloud_share_api.user;
 
 import static com.example.cloud_share_api.TestUtils.createTestUser;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -22,6 +23,9 @@ public class UserServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private UserCache userCache;
+
   private UserService userService;
   
   private User user;
@@ -29,7 +33,7 @@ public class UserServiceTest {
   @BeforeEach
   void setup() {
     user = createTestUser("user@test.in", "password"); 
-    userService = new UserService(userRepository);
+    userService = new UserService(userRepository, userCache);
   }
 
   @AfterEach
@@ -61,4 +65,35 @@ public class UserServiceTest {
     
     verify(userRepository, times(1)).findByEmail(username);
   }
+
+  @Test
+  void shouldReturnCachedUserDetails_whenUserExists() {
+    final String username = "user@test.in";
+    when(userCache.findByEmail(username)).thenReturn(Optional.of(user));
+
+    final UserDetails result = userService.loadCachedUserByUsername(username);
+
+    Assertions.assertThat(result).isSameAs(user);
+    verify(userRepository, never()).findByEmail(username);
+  }
+
+  @Test
+  void shouldThrowUsernameNotFoundException_whenCachedUserDoesNotExist() {
+    final String username = "anotheruser@test.in";
+    when(userCache.findByEmail(username)).thenReturn(Optional.empty());
+
+    Assertions.assertThatThrownBy(() -> userService.loadCachedUserByUsername(username))
+      .isInstanceOf(UsernameNotFoundException.class);
+  }
+
+  @Test
+  void shouldStoreRehashedPassword_whenEncodingUpgraded() {
+    user.setId(101L);
+
+    final UserDetails result = userService.updatePassword(user, "{bcrypt}rehashed");
+
+    Assertions.assertThat(result.getPassword()).isEqualTo("{bcrypt}rehashed");
+    verify(userRepository, times(1)).rehashPassword(101L, "{bcrypt}rehashed");
+    verify(userCache, times(1)).invalidate("user@test.in");
+  }
 }
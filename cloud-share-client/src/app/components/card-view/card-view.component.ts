@@ -1,6 +1,6 @@
-import { Component, inject, input, signal } from '@angular/core';
+import { Component, inject, input, OnDestroy, OnInit, signal } from '@angular/core';
 import { FontAwesomeModule } from '@fortawesome/angular-fontawesome';
-import { getSize, timestampToDate } from '../../shared/utils';
+import { getSize, startDownload, timestampToDate } from '../../shared/utils';
 import { File } from '../../types/file.type';
 import { FileService } from '../../service/file.service';
 import { Store } from '@ngrx/store';
@@ -13,14 +13,34 @@ import { deleteFile, updateFile } from '../../store/file/file.action';
   templateUrl: './card-view.component.html',
   styleUrl: './card-view.component.css'
 })
-export class CardViewComponent {
+export class CardViewComponent implements OnInit, OnDestroy {
   file = input.required<File>();
   
   fileService = inject(FileService);
   menuToggle = signal(false);
+  thumbnail = signal<string | null>(null);
 
   constructor(private store: Store<AppState>) {}
 
+  ngOnInit() {
+    if (!this.file().type.startsWith('image/')) {
+      return;
+    }
+
+    this.fileService.getThumbnail(this.file().uuid, 128).subscribe({
+      next: (blob) => {
+        this.thumbnail.set(URL.createObjectURL(blob));
+      }
+    })
+  }
+
+  ngOnDestroy() {
+    const thumbnail = this.thumbnail();
+    if (thumbnail) {
+      URL.revokeObjectURL(thumbnail);
+    }
+  }
+
   toggleMenu() {
     this.menuToggle.update(toggle => !toggle);
   }
@@ -56,17 +76,9 @@ export class CardViewComponent {
   }
 
   download() {
-    this.fileService.downloadPublicFile(this.file().uuid).subscribe({
-      next: (res) => {
-        const fileName = res.headers.get('X-File-Name') as string || 'download';
-        const blob = new Blob([res.body!], { type: res.headers.get('Content-Type') as string });
-        const url = window.URL.createObjectURL(blob);
-        const a = document.createElement('a');
-        a.href = url;
-        a.download = fileName;
-        document.body.appendChild(a);
-        a.click();
-        document.body.removeChild(a);
+    this.fileService.getDownloadLink(this.file().uuid).subscribe({
+      next: (link) => {
+        startDownload(link.url);
       }
     })
   }
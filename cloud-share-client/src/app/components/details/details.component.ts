@@ -1,7 +1,8 @@
-import { Component, input, output } from "@angular/core";
+import { Component, inject, input, output, signal } from "@angular/core";
 import { timestampToDate, getSize } from "../../shared/utils";
 import { File } from "../../types/file.type";
 import { FontAwesomeModule } from "@fortawesome/angular-fontawesome";
+import { FileService } from "../../service/file.service";
 
 @Component({
   selector: 'app-details',
@@ -13,6 +14,13 @@ export class DetailsComponent {
   file = input.required<File>();
   loading = input.required<boolean>();
   onDownload = output<boolean>();
+  thumbnailError = signal(false);
+
+  fileService = inject(FileService);
+
+  thumbnailUrl() {
+    return this.fileService.getPublicThumbnailUrl(this.file().uuid, 512);
+  }
 
   parseDate(date: Date) {
     return timestampToDate(date);
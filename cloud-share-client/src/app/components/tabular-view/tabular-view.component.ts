@@ -1,7 +1,7 @@
 import { Component, inject, input } from '@angular/core';
 import { FontAwesomeModule } from '@fortawesome/angular-fontawesome';
 import { File } from '../../types/file.type';
-import { getSize, timestampToDate } from '../../shared/utils';
+import { getSize, startDownload, timestampToDate } from '../../shared/utils';
 import { FileService } from '../../service/file.service';
 import { RouterLink } from '@angular/router';
 import { Observable } from 'rxjs';
@@ -55,17 +55,9 @@ export class TabularViewComponent {
   }
 
   download(uuid:string) {
-    this.fileService.downloadPublicFile(uuid).subscribe({
-      next: (res) => {
-        const fileName = res.headers.get('X-File-Name') as string || 'download';
-        const blob = new Blob([res.body!], { type: res.headers.get('Content-Type') as string });
-        const url = window.URL.createObjectURL(blob);
-        const a = document.createElement('a');
-        a.href = url;
-        a.download = fileName;
-        document.body.appendChild(a);
-        a.click();
-        document.body.removeChild(a);
+    this.fileService.getDownloadLink(uuid).subscribe({
+      next: (link) => {
+        startDownload(link.url);
       }
     })
   }
@@ -4,6 +4,7 @@ import { FileService } from '../../service/file.service';
 import { File } from '../../types/file.type';
 import { ActivatedRoute } from '@angular/router';
 import { DetailsComponent } from '../../components/details/details.component';
+import { startDownload } from '../../shared/utils';
 
 @Component({
   selector: 'app-file',
@@ -33,17 +34,9 @@ export class FileComponent implements OnInit {
 
   download() {
     this.loading.set(true);
-    this.fileService.downloadPublicFile(this.uuid).subscribe({
-      next: (res) => {
-        const fileName = res.headers.get('X-File-Name') as string || 'download';
-        const blob = new Blob([res.body!], { type: res.headers.get('Content-Type') as string });
-        const url = window.URL.createObjectURL(blob);
-        const a = document.createElement('a');
-        a.href = url;
-        a.download = fileName;
-        document.body.appendChild(a);
-        a.click();
-        document.body.removeChild(a);
+    this.fileService.getPublicDownloadLink(this.uuid).subscribe({
+      next: (link) => {
+        startDownload(link.url);
         this.loading.set(false);
       }
     })
@@ -32,7 +32,7 @@ export class DashboardComponent implements OnInit {
   ngOnInit(): void {
     this.fileService.getUserFiles().subscribe({
       next: (res) => {
-        this.store.dispatch(setFiles({files: res}));
+        this.store.dispatch(setFiles({files: res.files}));
       }
     });
   }
@@ -9,7 +9,7 @@ import { Observable } from 'rxjs';
 import { Store } from '@ngrx/store';
 import { AppState } from '../../../../store/app.state';
 import { fileSelector } from '../../../../store/file/file.selector';
-import { setFiles } from '../../../../store/file/file.action';
+import { appendFiles, setFiles } from '../../../../store/file/file.action';
 import { FontAwesomeModule } from '@fortawesome/angular-fontawesome';
 
 @Component({
@@ -22,6 +22,8 @@ export class FilesComponent implements OnInit {
   fileService = inject(FileService);
 
   files$: Observable<File[]>;
+  nextCursor = signal<string | null>(null);
+  loading = signal(false);
 
   constructor(private store: Store<AppState>) {
     this.files$ = store.select(fileSelector);
@@ -30,7 +32,22 @@ export class FilesComponent implements OnInit {
   ngOnInit(): void {
     this.fileService.getUserFiles().subscribe({
       next: (res) => {
-        this.store.dispatch(setFiles({files: res}));
+        this.store.dispatch(setFiles({files: res.files}));
+        this.nextCursor.set(res.nextCursor);
+      }
+    });
+  }
+
+  loadMore() {
+    this.loading.set(true);
+    this.fileService.getUserFiles(this.nextCursor()).subscribe({
+      next: (res) => {
+        this.store.dispatch(appendFiles({files: res.files}));
+        this.nextCursor.set(res.nextCursor);
+        this.loading.set(false);
+      },
+      error: () => {
+        this.loading.set(false);
       }
     });
   }
@@ -1,7 +1,7 @@
-import { HttpClient, HttpHeaders, HttpResponse } from '@angular/common/http';
+import { HttpClient, HttpHeaders } from '@angular/common/http';
 import { Injectable } from '@angular/core';
-import { Observable } from 'rxjs';
-import { File } from '../types/file.type';
+import { map, Observable } from 'rxjs';
+import { DownloadLink, File, FilePage } from '../types/file.type';
 
 const URL = 'http://localhost:8080/api/v1/uploads';
 
@@ -11,12 +11,17 @@ const URL = 'http://localhost:8080/api/v1/uploads';
 export class FileService {
   constructor(private client: HttpClient) {}
 
-  getUserFiles(): Observable<File[]> {
-    return this.client.get<File[]>(`${URL}/my`);
+  getUserFiles(cursor?: string | null): Observable<FilePage> {
+    const params: {[key: string]: string} = cursor ? {cursor} : {};
+    return this.client.get<File[]>(`${URL}/my`, {params, observe: 'response'}).pipe(
+      map(res => ({files: res.body ?? [], nextCursor: res.headers.get('X-Next-Cursor')}))
+    );
   }
 
   uploadFiles(files: FormData): Observable<File[]> {
-    return this.client.post<File[]>(`${URL}`, files);
+    return this.client.post<File[]>(`${URL}`, files, {
+      headers: new HttpHeaders({'X-Upload-Mode': 'streaming'})
+    });
   }
 
   getFile(uuid: string): Observable<File> {
@@ -35,17 +40,19 @@ export class FileService {
     return this.client.delete<{[key: string]: string}>(`${URL}/${uuid}`)
   }
 
-  downloadPublicFile(uuid: string): Observable<HttpResponse<Blob>> {
-    return this.client.get<Blob>(`${URL}/public/download/${uuid}`, {
-      observe: 'response',
-      responseType: 'blob' as 'json'
-    });
+  getPublicDownloadLink(uuid: string): Observable<DownloadLink> {
+    return this.client.get<DownloadLink>(`${URL}/public/${uuid}/link`);
   }
 
-  downloadFile(uuid: string): Observable<HttpResponse<Blob>> {
-    return this.client.get<Blob>(`${URL}/download/${uuid}`, {
-      observe: 'response',
-      responseType: 'blob' as 'json'
-    });
+  getDownloadLink(uuid: string): Observable<DownloadLink> {
+    return this.client.get<DownloadLink>(`${URL}/${uuid}/link`);
+  }
+
+  getThumbnail(uuid: string, size: number): Observable<Blob> {
+    return this.client.get(`${URL}/${uuid}/thumbnail?size=${size}`, {responseType: 'blob'});
+  }
+
+  getPublicThumbnailUrl(uuid: string, size: number): string {
+    return `${URL}/public/${uuid}/thumbnail?size=${size}`;
   }
 }
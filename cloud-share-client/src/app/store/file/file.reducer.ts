@@ -1,6 +1,6 @@
 import { createReducer, on } from "@ngrx/store";
 import { File } from "../../types/file.type";
-import { addFile, addFiles, deleteFile, setFiles, updateFile } from "./file.action";
+import { addFile, addFiles, appendFiles, deleteFile, setFiles, updateFile } from "./file.action";
 
 export interface FileState {
   files: File[];
@@ -18,6 +18,9 @@ export const fileReducer = createReducer(
   on(addFiles, (state, {files}) => ({
     files: [...files, ...state.files]
   })),
+  on(appendFiles, (state, {files}) => ({
+    files: [...state.files, ...files]
+  })),
   on(addFile, (state, {file}) => ({
     files: [file, ...state.files]
   })),
@@ -5,4 +5,14 @@ export interface File {
   size: number;
   isPublic: boolean;
   uploadedAt: Date;
-};
\ No newline at end of file
+};
+
+export interface DownloadLink {
+  url: string;
+  expiresAt: Date;
+};
+
+export interface FilePage {
+  files: File[];
+  nextCursor: string | null;
+};